@@ -0,0 +1,62 @@
+package treasurehunter.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.ActionJournal;
+import treasurehunter.Hunter;
+
+/**
+ * Journaling one action: the menu choice and the outcome that follows it.
+ * action() is what the game pays; actionWrittenEveryTurn() is what it would pay if every turn went to the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionJournalBenchmark {
+    private Path path;
+    private ActionJournal journal;
+    private Hunter hunter;
+
+    @Setup
+    public void setUp() throws IOException {
+        path = Files.createTempFile("bench", ".journal");
+        journal = new ActionJournal(path, 42L);
+        hunter = new Hunter("bench", 100);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.delete(path);
+    }
+
+    @Benchmark
+    public void action() {
+        journal.recordInput("l");
+        journal.recordOutcome(hunter);
+    }
+
+    @Benchmark
+    public void actionWrittenEveryTurn() {
+        journal.recordInput("l");
+        journal.recordOutcome(hunter);
+        journal.flush();
+    }
+}
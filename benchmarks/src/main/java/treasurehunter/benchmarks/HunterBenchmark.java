@@ -0,0 +1,66 @@
+package treasurehunter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.Hunter;
+import treasurehunter.Item;
+import treasurehunter.Treasure;
+
+/**
+ * Kit lookups and the status line shown every turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HunterBenchmark {
+    private Hunter hunter;
+    private int goldChange;
+
+    @Setup
+    public void setUp() {
+        hunter = new Hunter("bench", 100);
+        hunter.addStartingItem(Item.ROPE);
+        hunter.addStartingItem(Item.WATER);
+        hunter.addStartingItem(Item.SHOVEL);
+        hunter.addTreasure(Treasure.GEM);
+        goldChange = 1;
+    }
+
+    @Benchmark
+    public boolean hasItemInKitByName() {
+        return hunter.hasItemInKit("shovel");
+    }
+
+    @Benchmark
+    public boolean hasItemInKit() {
+        return hunter.hasItemInKit(Item.SHOVEL);
+    }
+
+    @Benchmark
+    public String infoString() {
+        return hunter.infoString();
+    }
+
+    /**
+     * The status line right after the hunter's gold changes, like after a brawl.
+     */
+    @Benchmark
+    public String infoStringAfterChange() {
+        hunter.changeGold(goldChange);
+        goldChange = -goldChange;
+        return hunter.infoString();
+    }
+}
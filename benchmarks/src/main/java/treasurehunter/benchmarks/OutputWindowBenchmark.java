@@ -0,0 +1,102 @@
+package treasurehunter.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.text.DefaultStyledDocument;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.OutputWindow;
+import treasurehunter.TextColor;
+
+/**
+ * Rendering into an off-screen document, no JFrame needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OutputWindowBenchmark {
+    private OutputWindow window;
+
+    @Setup
+    public void setUp() {
+        window = new OutputWindow(new DefaultStyledDocument());
+    }
+
+    /**
+     * Only the game thread's side: adds text to a batch that is cleared before it is ever published, so nothing
+     * is drawn. See menuRedraw() and appendWithoutClear() for the cost of drawing.
+     */
+    @Benchmark
+    public void addTextWithoutFlush() {
+        window.clear();
+        window.addTextToWindow("\nYou won the brawl and receive ", TextColor.GREEN);
+        window.addTextToWindow("7 gold.", TextColor.ORANGE);
+    }
+
+    /**
+     * Clears and redraws the same menu as TreasureHunter.showMenu(), then waits
+     * for the event dispatch thread to finish applying it.
+     */
+    @Benchmark
+    public void menuRedraw() throws InterruptedException, InvocationTargetException {
+        window.clear();
+        window.addTextToWindow("\n", TextColor.BLACK);
+        window.addTextToWindow("You recently won a brawl.", TextColor.BLACK);
+        window.addTextToWindow("\n", TextColor.BLACK);
+        window.addTextToWindow("***\n", TextColor.BLACK);
+        window.addTextToWindow("bench has 27 gold and rope shovel ", TextColor.ORANGE);
+        window.addTextToWindow("\n", TextColor.BLACK);
+        window.addTextToWindow("This nice little town is surrounded by Jungle.", TextColor.BLACK);
+        window.addTextToWindow("\n", TextColor.BLACK);
+        window.addTextToWindow("\n(B)uy something at the shop.", TextColor.BLACK);
+        window.addTextToWindow("\n(S)ell something at the shop.", TextColor.BLACK);
+        window.addTextToWindow("\n(E)xplore surrounding terrain.", TextColor.BLACK);
+        window.addTextToWindow("\n(M)ove on to a different town.", TextColor.BLACK);
+        window.addTextToWindow("\n(L)ook for trouble!", TextColor.BLACK);
+        window.addTextToWindow("\n(H)unt for treasure.", TextColor.BLACK);
+        window.addTextToWindow("\n(D)ig for gold.", TextColor.BLACK);
+        window.addTextToWindow("\nGive up the hunt and e(X)it.", TextColor.BLACK);
+        window.addTextToWindow("\n", TextColor.BLACK);
+        window.addTextToWindow("\nWhat's your next move? ", TextColor.BLACK);
+        window.flush();
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    /**
+     * Adds a line and shows it without ever clearing, like a long session does. The window cuts off old
+     * lines past OutputWindow.MAX_CHARS, so this costs the same however many times it has run.
+     */
+    @Benchmark
+    public void appendWithoutClear() throws InterruptedException, InvocationTargetException {
+        window.addTextToWindow("\nYou won the brawl and receive ", TextColor.GREEN);
+        window.addTextToWindow("7 gold.", TextColor.ORANGE);
+        window.flush();
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    /**
+     * Flushes the lines of the death narrative one at a time, then waits for them to be drawn. The flushes
+     * are all drained together, so the document gets a single insert however many there were.
+     */
+    @Benchmark
+    public void burstOfFlushes() throws InterruptedException, InvocationTargetException {
+        for (int line = 0; line < 8; line++) {
+            window.addTextToWindow("\nYour connection to the mortal world begins to unravel, string by string. ", TextColor.RED);
+            window.flush();
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+}
@@ -0,0 +1,53 @@
+package treasurehunter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.DifficultyProfile;
+import treasurehunter.GameRandom;
+import treasurehunter.NullOutput;
+import treasurehunter.RoutePlan;
+import treasurehunter.RoutePlanner;
+import treasurehunter.WorldMap;
+
+/**
+ * Planning a trip between two random towns with a random kit, once the planner is prepared.
+ * The time should stay the same as the world grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutePlannerBenchmark {
+    @Param({"1000", "100000"})
+    private int towns;
+
+    private RoutePlanner planner;
+    private GameRandom random;
+
+    @Setup
+    public void setUp() {
+        random = new GameRandom(42);
+        WorldMap map = new WorldMap(DifficultyProfile.forKey("n"), NullOutput.INSTANCE, towns, random);
+        planner = new RoutePlanner(map);
+        planner.prepareAll();
+    }
+
+    @Benchmark
+    public RoutePlan plan() {
+        return planner.plan(random.nextInt(towns), random.nextInt(towns), random.nextInt(WorldMap.CROSSING_SETS),
+                random.nextInt(60));
+    }
+}
@@ -0,0 +1,62 @@
+package treasurehunter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.DifficultyProfile;
+import treasurehunter.Hunter;
+import treasurehunter.Shop;
+
+/**
+ * Price lookups and the Hunter's side of buying and selling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShopBenchmark {
+    private Shop shop;
+    private Hunter hunter;
+    private String item;
+
+    @Setup
+    public void setUp() {
+        shop = new Shop(DifficultyProfile.forKey("n"));
+        hunter = new Hunter("bench", 100);
+        item = "horse";
+    }
+
+    @Benchmark
+    public int checkMarketPriceBuy() {
+        return shop.checkMarketPrice(item, true);
+    }
+
+    @Benchmark
+    public int checkMarketPriceSell() {
+        return shop.checkMarketPrice(item, false);
+    }
+
+    @Benchmark
+    public int checkMarketPriceUnknownItem() {
+        return shop.checkMarketPrice("spaceship", true);
+    }
+
+    /**
+     * Buys and sells back at the same price so the hunter's gold never runs out.
+     */
+    @Benchmark
+    public boolean buyThenSell() {
+        return hunter.buyItem(item, 12) & hunter.sellItem(item, 12);
+    }
+}
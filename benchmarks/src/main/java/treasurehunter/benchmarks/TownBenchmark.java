@@ -0,0 +1,64 @@
+package treasurehunter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import treasurehunter.DifficultyProfile;
+import treasurehunter.GameRandom;
+import treasurehunter.Hunter;
+import treasurehunter.Item;
+import treasurehunter.NullOutput;
+import treasurehunter.OutputSink;
+import treasurehunter.Shop;
+import treasurehunter.Town;
+
+/**
+ * One full visit to a town: arrive, brawl, hunt, dig and leave.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TownBenchmark {
+    private OutputSink window;
+    private DifficultyProfile profile;
+    private Shop shop;
+    private GameRandom random;
+    private Hunter hunter;
+
+    @Setup
+    public void setUp() {
+        window = NullOutput.INSTANCE;
+        profile = DifficultyProfile.forKey("n");
+        shop = new Shop(profile);
+        random = new GameRandom(42);
+        hunter = new Hunter("bench", Integer.MAX_VALUE / 2);
+    }
+
+    @Benchmark
+    public boolean townCycle() {
+        // items break when crossing terrain, so refill the kit every visit
+        for (Item item : Item.values()) {
+            if (item != Item.SWORD) {
+                hunter.addStartingItem(item);
+            }
+        }
+        Town town = new Town(shop, profile, window, random);
+        town.hunterArrives(hunter);
+        town.lookForTrouble();
+        town.treasureHunt();
+        town.digForGold();
+        return town.leaveTown();
+    }
+}
@@ -0,0 +1,205 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * The ActionJournal writes an append-only binary record of one game.<p>
+ * A game is fully decided by its seed, its difficulties and what the player typed, so the journal stores
+ * the seed and every difficulty the player could pick (key and settings), followed by every line of input. After every menu choice it also stores the hunter's gold, kit
+ * and treasures, which captures the random outcome (and any shop transaction) of that choice and lets
+ * JournalReplayer check that a replay went the same way.<p>
+ * Records are collected in a buffer, so recording a line is just a few bytes copied into memory. The buffer is
+ * written to the file when a turn's outcome is recorded and either FLUSH_BYTES have built up or FLUSH_NANOS have
+ * passed since the last write, and always by flush() and close(). A game played by hand takes longer than that
+ * between turns, so its every turn is written at once, while a fast scripted or replayed game is written in
+ * large batches.<p>
+ * The file is written but never forced to disk: if the process dies, at most the turns of the last tenth of a
+ * second are lost, but if the machine itself goes down, whatever the operating system had not yet saved is lost
+ * too.<p>
+ * Format, all numbers big-endian:
+ * <pre>
+ * header:  int MAGIC, short VERSION, long seed, short difficulties,
+ *          then for each: string key, short settings, then for each: string setting, string value
+ *          (a string is a short length and UTF-8)
+ * COMMAND: byte 1, byte choice           (a one-character line, e.g. a menu choice)
+ * LINE:    byte 2, short length, UTF-8   (any other line, e.g. the hunter's name)
+ * OUTCOME: byte 3, int gold, int kit, int treasures, byte flags (1 = win, 2 = game over)
+ * RESUME:  byte 4, int length, snapshot (a parked game the player picked up, see GameSnapshot)
+ * </pre>
+ * A game picked up from a parked snapshot carries on from the snapshot rather than from the seed, so the
+ * snapshot goes in the journal, right after the name the player gave, and the replay starts from it.
+ */
+
+public final class ActionJournal implements AutoCloseable {
+    // constants
+    public static final int MAGIC = 0x54484a31; // "THJ1"
+    public static final short VERSION = 1;
+    public static final byte COMMAND = 1;
+    public static final byte LINE = 2;
+    public static final byte OUTCOME = 3;
+    public static final byte RESUME = 4;
+    public static final byte WIN_FLAG = 1;
+    public static final byte GAME_OVER_FLAG = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    static final int FLUSH_BYTES = 16 * 1024;
+    static final long FLUSH_NANOS = 100_000_000L;
+
+    // instance variables
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long lastWrite;
+
+    /**
+     * Creates (or replaces) a journal file and writes its header.
+     *
+     * @param path The journal file.
+     * @param seed The seed of the game being journaled.
+     * @param profiles The difficulties the player can pick from, as given to TreasureHunter.setProfiles().
+     * @throws IOException if the file cannot be opened.
+     * @throws IllegalArgumentException if a difficulty's key or setting is too long to journal.
+     */
+    public ActionJournal(Path path, long seed, Map<String, DifficultyProfile> profiles) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        lastWrite = System.nanoTime();
+        try {
+            buffer.putInt(MAGIC).putShort(VERSION).putLong(seed);
+            buffer.putShort((short) profiles.size());
+            for (DifficultyProfile profile : profiles.values()) {
+                putString(profile.getKey());
+                makeRoom(2);
+                buffer.putShort((short) profile.getSettings().size());
+                for (Map.Entry<String, String> setting : profile.getSettings().entrySet()) {
+                    putString(setting.getKey());
+                    putString(setting.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates (or replaces) a journal of a game played on the bundled difficulties.
+     */
+    public ActionJournal(Path path, long seed) throws IOException {
+        this(path, seed, DifficultyProfile.getDefaults());
+    }
+
+    /**
+     * Records a line the player typed.
+     *
+     * @param line The line, already in lowercase.
+     */
+    public void recordInput(String line) {
+        if (line.length() == 1 && line.charAt(0) < 128) {
+            makeRoom(2);
+            buffer.put(COMMAND).put((byte) line.charAt(0));
+        } else {
+            makeRoom(1);
+            buffer.put(LINE);
+            putString(line);
+        }
+    }
+
+    /**
+     * Records the hunter's state after a menu choice has been carried out, and writes the journal to the file if
+     * enough has built up or enough time has passed.
+     *
+     * @param hunter The hunter.
+     */
+    public void recordOutcome(Hunter hunter) {
+        byte flags = 0;
+        if (hunter.isWin()) {
+            flags |= WIN_FLAG;
+        }
+        if (hunter.isGameOver()) {
+            flags |= GAME_OVER_FLAG;
+        }
+        makeRoom(14);
+        buffer.put(OUTCOME).putInt(hunter.getGold()).putInt(hunter.getKit()).putInt(hunter.getTreasures()).put(flags);
+        if (buffer.position() >= FLUSH_BYTES || System.nanoTime() - lastWrite >= FLUSH_NANOS) {
+            flush();
+        }
+    }
+
+    /**
+     * Records that the player picked up a parked game, which the rest of the journal carries on from.
+     *
+     * @param snapshot The parked game, as returned by TreasureHunter.saveSnapshot().
+     */
+    public void recordResume(byte[] snapshot) {
+        makeRoom(5);
+        buffer.put(RESUME).putInt(snapshot.length);
+        makeRoom(snapshot.length);
+        if (snapshot.length <= buffer.remaining()) {
+            buffer.put(snapshot);
+        } else {
+            // bigger than the whole buffer, so it goes straight to the file
+            write(ByteBuffer.wrap(snapshot));
+        }
+    }
+
+    /**
+     * Writes everything recorded so far to the file.
+     */
+    public void flush() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+        lastWrite = System.nanoTime();
+    }
+
+    /**
+     * Writes what is left and closes the file.
+     */
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a short length and then the string as UTF-8.
+     * Lines the player typed always fit, since PlayerInput cuts them to MAX_LINE_BYTES.
+     *
+     * @throws IllegalArgumentException if the string is longer than Short.MAX_VALUE bytes, rather than journal
+     * something the game didn't use.
+     */
+    private void putString(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Can't journal a string of " + bytes.length + " bytes");
+        }
+        makeRoom(2 + bytes.length);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private void write(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void makeRoom(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many headless games of Treasure Hunter at once to check the game's balance.<p>
+ * Games run on a parallel stream, so they are spread across every core by the common fork-join pool.
+ * No window is opened and nothing is read from System.in.
+ */
+
+public class BatchSimulator {
+
+    /**
+     * Plays a batch of games in parallel with the greedy strategy.
+     *
+     * @param difficulty "e", "n" or "h".
+     * @param games How many games to play.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game; game i is played with seed + i.
+     * @return The combined totals of every game.
+     */
+    public static SimulationStats run(String difficulty, int games, int maxTurns, long seed) {
+        return run(difficulty, games, maxTurns, seed, (Leaderboard) null);
+    }
+
+    /**
+     * Plays a batch of games in parallel with the greedy strategy, adding every game to a leaderboard.
+     *
+     * @param difficulty "e", "n" or "h".
+     * @param games How many games to play.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game; game i is played with seed + i.
+     * @param leaderboard Where to record the games, or null not to.
+     * @return The combined totals of every game.
+     */
+    public static SimulationStats run(String difficulty, int games, int maxTurns, long seed, Leaderboard leaderboard) {
+        return run(DifficultyProfile.forKey(difficulty), games, maxTurns, seed, leaderboard);
+    }
+
+    /**
+     * Plays a batch of games of any difficulty, including variants no player can pick, with the greedy strategy.
+     *
+     * @param profile The difficulty.
+     * @param games How many games to play.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game; game i is played with seed + i.
+     * @param leaderboard Where to record the games, or null not to.
+     * @return The combined totals of every game.
+     */
+    public static SimulationStats run(DifficultyProfile profile, int games, int maxTurns, long seed, Leaderboard leaderboard) {
+        return IntStream.range(0, games)
+                .parallel()
+                .mapToObj(i -> {
+                    Simulation simulation = new Simulation(profile, seed + i);
+                    simulation.playGreedy(maxTurns);
+                    if (leaderboard != null) {
+                        leaderboard.add(simulation);
+                    }
+                    return simulation;
+                })
+                .collect(SimulationStats::new, SimulationStats::add, SimulationStats::combine);
+    }
+
+    /**
+     * Plays a batch of games in parallel with the moves from a policy.
+     *
+     * @param difficulty "e", "n" or "h", which must match the policy's.
+     * @param games How many games to play.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game; game i is played with seed + i.
+     * @param policy The best moves, as worked out by PolicySolver.
+     * @return The combined totals of every game.
+     */
+    public static SimulationStats run(String difficulty, int games, int maxTurns, long seed, PolicyTable policy) {
+        return run(DifficultyProfile.forKey(difficulty), games, maxTurns, seed, policy);
+    }
+
+    /**
+     * Plays a batch of games of any difficulty with the moves from a policy.
+     *
+     * @param profile The difficulty, which must match the policy's.
+     * @param games How many games to play.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game; game i is played with seed + i.
+     * @param policy The best moves, as worked out by PolicySolver.
+     * @return The combined totals of every game.
+     */
+    public static SimulationStats run(DifficultyProfile profile, int games, int maxTurns, long seed, PolicyTable policy) {
+        return IntStream.range(0, games)
+                .parallel()
+                .mapToObj(i -> {
+                    Simulation simulation = new Simulation(profile, seed + i);
+                    simulation.playPolicy(policy, maxTurns);
+                    return simulation;
+                })
+                .collect(SimulationStats::new, SimulationStats::add, SimulationStats::combine);
+    }
+
+    /**
+     * Usage: BatchSimulator [games] [difficulty] [maxTurns] [seed] [leaderboardFile]
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String difficulty = args.length > 1 ? args[1].toLowerCase() : "n";
+        int maxTurns = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long start = System.nanoTime();
+        SimulationStats stats;
+        if (args.length > 4) {
+            try (Leaderboard leaderboard = new Leaderboard(Path.of(args[4]))) {
+                stats = run(difficulty, games, maxTurns, seed, leaderboard);
+            }
+        } else {
+            stats = run(difficulty, games, maxTurns, seed);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Difficulty " + difficulty + ", seed " + seed + ", " + millis + " ms");
+        System.out.println(stats.infoString());
+    }
+}
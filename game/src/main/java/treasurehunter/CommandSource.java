@@ -0,0 +1,20 @@
+package treasurehunter;
+
+/**
+ * Somewhere the player's typed lines come from.<p>
+ * A game reads every line through one PlayerInput backed by one CommandSource, so nothing else can read
+ * ahead and take lines meant for someone else. The same game can be played from the keyboard or a socket
+ * (ReaderCommandSource), a script file (ReaderCommandSource), or a list of commands in memory
+ * (ListCommandSource).
+ */
+
+public interface CommandSource {
+
+    /**
+     * Reads the next line, without its line ending.
+     *
+     * @return The line exactly as typed.
+     * @throws java.util.NoSuchElementException if there are no more lines.
+     */
+    String nextLine();
+}
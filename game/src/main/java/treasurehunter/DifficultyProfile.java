@@ -0,0 +1,383 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A DifficultyProfile holds every number that makes one difficulty what it is: the hunter's starting gold
+ * and kit, the shop's prices, and the odds of every roll in Town.<p>
+ * Profiles are read from a config file (difficulty.properties, next to this class, unless another is given)
+ * and every setting is parsed and checked once, when the profile is built. After that a profile never
+ * changes, so one profile is shared by every town, shop and simulation that uses it, and the game reads
+ * plain fields instead of checking which mode it is in. A variant with one setting changed is made with
+ * with(), so a sweep can try any setting in the file without code changes.<p>
+ * In the file, settings without a prefix are shared by every difficulty, and "h.markdown" overrides
+ * "markdown" for the difficulty "h" only. The setting "difficulties" lists the difficulties, in order.
+ */
+
+public final class DifficultyProfile {
+    // constants
+    public static final String DEFAULT_KEY = "n";
+    public static final List<String> SETTINGS = List.of(
+            "name", "startingGold", "startingItems", "secretSamurai", "markdown",
+            "cost.water", "cost.rope", "cost.machete", "cost.horse", "cost.boat", "cost.boots", "cost.shovel",
+            "cost.sword", "toughness", "troubleChance.calm", "troubleChance.tough", "maxBrawlGold",
+            "treasureChance", "dropChance", "digChance", "maxDugGold", "itemBreakChance");
+    private static final String RESOURCE = "difficulty.properties";
+    private static final String DIFFICULTIES = "difficulties";
+
+    // static variables
+    // the profiles in the bundled file, read once when the class is loaded
+    private static final Map<String, DifficultyProfile> DEFAULTS = loadDefaults();
+
+    // instance variables
+    private final String key;
+    private final Map<String, String> settings;
+    private final String name;
+    private final int startingGold;
+    private final int startingKit;
+    private final boolean secretSamurai;
+    private final PriceTable prices;
+    private final double toughness;
+    private final double calmTroubleChance;
+    private final double toughTroubleChance;
+    private final int maxBrawlGold;
+    private final double treasureChance;
+    private final double dropChance;
+    private final double digChance;
+    private final int maxDugGold;
+    private final double itemBreakChance;
+
+    /**
+     * Parses and checks every setting of a profile.
+     *
+     * @param key The letter (or word) the player types to pick the difficulty.
+     * @param settings Every setting in SETTINGS by name; "name" may be left out.
+     * @throws IllegalArgumentException if a setting is missing, unknown or out of range.
+     */
+    private DifficultyProfile(String key, Map<String, String> settings) {
+        for (String setting : settings.keySet()) {
+            if (!SETTINGS.contains(setting)) {
+                throw new IllegalArgumentException("Unknown setting " + setting);
+            }
+        }
+        this.key = key;
+        this.settings = Collections.unmodifiableMap(new LinkedHashMap<>(settings));
+        name = settings.getOrDefault("name", key);
+        startingGold = parseInt(settings, "startingGold", 0);
+        startingKit = parseKit(settings, "startingItems");
+        secretSamurai = Boolean.parseBoolean(require(settings, "secretSamurai"));
+        int[] costs = new int[Item.values().length];
+        for (Item item : Item.values()) {
+            costs[item.ordinal()] = parseInt(settings, "cost." + item.getName(), 0);
+        }
+        prices = new PriceTable(costs, parseChance(settings, "markdown"));
+        toughness = parseChance(settings, "toughness");
+        calmTroubleChance = parseChance(settings, "troubleChance.calm");
+        toughTroubleChance = parseChance(settings, "troubleChance.tough");
+        maxBrawlGold = parseInt(settings, "maxBrawlGold", 1);
+        treasureChance = parseChance(settings, "treasureChance");
+        if (treasureChance * 3 > 1) {
+            throw new IllegalArgumentException("Setting treasureChance is more than a third");
+        }
+        dropChance = parseChance(settings, "dropChance");
+        digChance = parseChance(settings, "digChance");
+        maxDugGold = parseInt(settings, "maxDugGold", 1);
+        itemBreakChance = parseChance(settings, "itemBreakChance");
+    }
+
+    /**
+     * Gets one of the bundled difficulties.
+     *
+     * @param key "e", "n", "h", "test" or "s".
+     * @return The difficulty, or normal if there is no such difficulty.
+     */
+    public static DifficultyProfile forKey(String key) {
+        DifficultyProfile profile = DEFAULTS.get(key);
+        return profile != null ? profile : DEFAULTS.get(DEFAULT_KEY);
+    }
+
+    /**
+     * Builds a difficulty from its settings, e.g. ones saved from another profile's getSettings().
+     *
+     * @param key The letter (or word) the player types to pick the difficulty.
+     * @param settings Every setting in SETTINGS by name; "name" may be left out.
+     * @return The difficulty.
+     * @throws IllegalArgumentException if a setting is missing, unknown or out of range.
+     */
+    public static DifficultyProfile of(String key, Map<String, String> settings) {
+        return new DifficultyProfile(key, settings);
+    }
+
+    /**
+     * @return The bundled difficulties by key, in the order the file lists them.
+     */
+    public static Map<String, DifficultyProfile> getDefaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Reads every difficulty in a config file.
+     *
+     * @param path The file, in the same format as the bundled difficulty.properties.
+     * @return The difficulties by key, in the order the file lists them.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if a setting is missing, unknown or out of range.
+     */
+    public static Map<String, DifficultyProfile> load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Properties file = new Properties();
+            file.load(reader);
+            return parse(file);
+        }
+    }
+
+    private static Map<String, DifficultyProfile> loadDefaults() {
+        try (InputStream in = DifficultyProfile.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " is missing");
+            }
+            Properties file = new Properties();
+            file.load(in);
+            return parse(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, DifficultyProfile> parse(Properties file) {
+        Map<String, DifficultyProfile> profiles = new LinkedHashMap<>();
+        for (String key : require(file, DIFFICULTIES).split(",")) {
+            key = key.trim();
+            Map<String, String> settings = new LinkedHashMap<>();
+            for (String setting : SETTINGS) {
+                String value = file.getProperty(key + "." + setting, file.getProperty(setting));
+                if (value != null) {
+                    settings.put(setting, value.trim());
+                }
+            }
+            String prefix = key + ".";
+            for (String property : file.stringPropertyNames()) {
+                if (property.startsWith(prefix) && !SETTINGS.contains(property.substring(prefix.length()))) {
+                    throw new IllegalArgumentException("Unknown setting " + property);
+                }
+            }
+            try {
+                profiles.put(key, new DifficultyProfile(key, settings));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Difficulty " + key + ": " + e.getMessage(), e);
+            }
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Makes a copy of this profile with one setting changed; this profile stays as it is.
+     *
+     * @param setting One of SETTINGS, e.g. "markdown" or "cost.shovel".
+     * @param value The new value, as it would be written in the file.
+     * @return The new profile, with the same key.
+     * @throws IllegalArgumentException if the setting is unknown or the value is out of range.
+     */
+    public DifficultyProfile with(String setting, String value) {
+        Map<String, String> changed = new LinkedHashMap<>(settings);
+        changed.put(setting, value);
+        return new DifficultyProfile(key, changed);
+    }
+
+    public DifficultyProfile with(String setting, double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return with(setting, String.valueOf((long) value));
+        }
+        return with(setting, String.valueOf(value));
+    }
+
+    /**
+     * Creates a hunter with this difficulty's starting gold and kit.
+     *
+     * @param hunterName The hunter's name.
+     * @return The new hunter.
+     */
+    public Hunter createHunter(String hunterName) {
+        Hunter hunter = new Hunter(hunterName, startingGold);
+        for (Item item : Item.values()) {
+            if ((startingKit & item.getBit()) != 0) {
+                hunter.addStartingItem(item);
+            }
+        }
+        hunter.setSecretSamurai(secretSamurai);
+        return hunter;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param setting One of SETTINGS.
+     * @return The setting's value as written in the file, or null if it is not set.
+     */
+    public String getSetting(String setting) {
+        return settings.get(setting);
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    public int getStartingGold() {
+        return startingGold;
+    }
+
+    /**
+     * @return The starting kit, as returned by Hunter.getKit().
+     */
+    public int getStartingKit() {
+        return startingKit;
+    }
+
+    public boolean isSecretSamurai() {
+        return secretSamurai;
+    }
+
+    public PriceTable getPriceTable() {
+        return prices;
+    }
+
+    /**
+     * @return Percentage of an item's price paid back when selling it.
+     */
+    public double getMarkdown() {
+        return prices.getMarkdown();
+    }
+
+    /**
+     * @return The chance of a new town being a tough town.
+     */
+    public double getToughness() {
+        return toughness;
+    }
+
+    /**
+     * @param tough Whether the town is tough.
+     * @return The chance of finding a brawl, which is also the chance of losing it.
+     */
+    public double getTroubleChance(boolean tough) {
+        return tough ? toughTroubleChance : calmTroubleChance;
+    }
+
+    /**
+     * @return The most gold won or lost in one brawl.
+     */
+    public int getMaxBrawlGold() {
+        return maxBrawlGold;
+    }
+
+    /**
+     * @return The chance of a town holding each one of the crown, the trophy and the gem; dust takes the rest.
+     */
+    public double getTreasureChance() {
+        return treasureChance;
+    }
+
+    /**
+     * @return The chance of dropping a treasure found in a tough town.
+     */
+    public double getDropChance() {
+        return dropChance;
+    }
+
+    /**
+     * @return The chance of digging up gold rather than dirt.
+     */
+    public double getDigChance() {
+        return digChance;
+    }
+
+    public int getMaxDugGold() {
+        return maxDugGold;
+    }
+
+    /**
+     * @return The chance of the item used to cross the terrain breaking.
+     */
+    public double getItemBreakChance() {
+        return itemBreakChance;
+    }
+
+    public String infoString() {
+        return name + " (" + key + ")";
+    }
+
+    private static String require(Map<String, String> settings, String setting) {
+        String value = settings.get(setting);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + setting);
+        }
+        return value;
+    }
+
+    private static String require(Properties file, String setting) {
+        String value = file.getProperty(setting);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + setting);
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> settings, String setting, int min) {
+        int value;
+        try {
+            value = Integer.parseInt(require(settings, setting));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + setting + " is not a whole number", e);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("Setting " + setting + " is less than " + min);
+        }
+        return value;
+    }
+
+    private static double parseChance(Map<String, String> settings, String setting) {
+        double value;
+        try {
+            value = Double.parseDouble(require(settings, setting));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + setting + " is not a number", e);
+        }
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException("Setting " + setting + " is not between 0 and 1");
+        }
+        return value;
+    }
+
+    private static int parseKit(Map<String, String> settings, String setting) {
+        int kit = 0;
+        for (String itemName : require(settings, setting).split(",")) {
+            itemName = itemName.trim();
+            if (itemName.isEmpty()) {
+                continue;
+            }
+            Item item = Item.fromName(itemName);
+            if (item == null) {
+                throw new IllegalArgumentException("Setting " + setting + " has no such item: " + itemName);
+            }
+            kit |= item.getBit();
+        }
+        return kit;
+    }
+}
@@ -0,0 +1,211 @@
+package treasurehunter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameMetrics counts every menu command and times it, along with drawing the menu and using the shop.<p>
+ * There is one GameMetrics for the whole program, shared by every game session, so the percentiles show
+ * how the game behaves when many sessions run together. Time spent waiting for the player to type is
+ * left out (see PlayerInput.getWaitNanos()), so the numbers are the game's own work.<p>
+ * The numbers can be read through JMX once register() has been called, or printed every so often with
+ * startDump().
+ */
+
+public class GameMetrics implements GameMetricsMBean {
+    // constants
+    public static final String OBJECT_NAME = "treasurehunter:type=GameMetrics";
+    // the menu commands, then everything else (mistyped commands) together
+    private static final String[] COMMANDS = {"b", "s", "e", "m", "l", "h", "d", "x", "other"};
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    // static variables
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    // instance variables
+    private final LatencyHistogram[] commands;
+    private final LatencyHistogram render;
+    private final LatencyHistogram shop;
+
+    private GameMetrics() {
+        commands = new LatencyHistogram[COMMANDS.length];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = new LatencyHistogram();
+        }
+        render = new LatencyHistogram();
+        shop = new LatencyHistogram();
+    }
+
+    public static GameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Makes the metrics visible through the platform MBean server; calling it again does nothing.
+     */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Prints dump() every so often on a background thread that won't keep the program running.
+     *
+     * @param seconds How often to print.
+     * @param out Where to print.
+     * @return The thread's executor, so the dumps can be stopped with shutdown().
+     */
+    public static ScheduledExecutorService startDump(long seconds, PrintStream out) {
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "game-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> out.print(INSTANCE.dump()), seconds, seconds, TimeUnit.SECONDS);
+        return dumper;
+    }
+
+    /**
+     * Records one menu command.
+     *
+     * @param choice What the player typed at the menu.
+     * @param nanos How long the command took, not counting time spent waiting for the player.
+     */
+    public void recordCommand(String choice, long nanos) {
+        int command = COMMANDS.length - 1;
+        for (int i = 0; i < COMMANDS.length - 1; i++) {
+            if (COMMANDS[i].equals(choice)) {
+                command = i;
+                break;
+            }
+        }
+        commands[command].record(nanos);
+    }
+
+    /**
+     * Records drawing the menu once.
+     *
+     * @param nanos How long it took.
+     */
+    public void recordRender(long nanos) {
+        render.record(nanos);
+    }
+
+    /**
+     * Records one visit to the shop.
+     *
+     * @param nanos How long it took, not counting time spent waiting for the player.
+     */
+    public void recordShop(long nanos) {
+        shop.record(nanos);
+    }
+
+    public String[] getCommands() {
+        return COMMANDS.clone();
+    }
+
+    public long[] getCounts() {
+        long[] counts = new long[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            counts[i] = commands[i].getCount();
+        }
+        return counts;
+    }
+
+    public double[] getMeanMicros() {
+        double[] means = new double[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            means[i] = commands[i].getMean() / NANOS_PER_MICRO;
+        }
+        return means;
+    }
+
+    public double[] getP50Micros() {
+        return percentileMicros(50);
+    }
+
+    public double[] getP99Micros() {
+        return percentileMicros(99);
+    }
+
+    public double[] getP999Micros() {
+        return percentileMicros(99.9);
+    }
+
+    public double[] getMaxMicros() {
+        double[] maxes = new double[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            maxes[i] = commands[i].getMax() / NANOS_PER_MICRO;
+        }
+        return maxes;
+    }
+
+    public long getRenderCount() {
+        return render.getCount();
+    }
+
+    public double getRenderP99Micros() {
+        return render.getValueAtPercentile(99) / NANOS_PER_MICRO;
+    }
+
+    public long getShopCount() {
+        return shop.getCount();
+    }
+
+    public double getShopP99Micros() {
+        return shop.getValueAtPercentile(99) / NANOS_PER_MICRO;
+    }
+
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-8s %10s %10s %10s %10s %10s %10s  (microseconds)%n",
+                "action", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (int i = 0; i < commands.length; i++) {
+            appendRow(text, COMMANDS[i], commands[i]);
+        }
+        appendRow(text, "render", render);
+        appendRow(text, "shop", shop);
+        return text.toString();
+    }
+
+    public void reset() {
+        for (LatencyHistogram command : commands) {
+            command.reset();
+        }
+        render.reset();
+        shop.reset();
+    }
+
+    private double[] percentileMicros(double percentile) {
+        double[] values = new double[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            values[i] = commands[i].getValueAtPercentile(percentile) / NANOS_PER_MICRO;
+        }
+        return values;
+    }
+
+    private void appendRow(StringBuilder text, String action, LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        text.append(String.format("%-8s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", action, histogram.getCount(),
+                histogram.getMean() / NANOS_PER_MICRO,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+                histogram.getMax() / NANOS_PER_MICRO));
+    }
+}
@@ -0,0 +1,40 @@
+package treasurehunter;
+
+/**
+ * What GameMetrics shows through JMX, e.g. in JConsole under treasurehunter:type=GameMetrics.<p>
+ * The per-command arrays all line up with getCommands(). Times are in microseconds.
+ */
+
+public interface GameMetricsMBean {
+    String[] getCommands();
+
+    long[] getCounts();
+
+    double[] getMeanMicros();
+
+    double[] getP50Micros();
+
+    double[] getP99Micros();
+
+    double[] getP999Micros();
+
+    double[] getMaxMicros();
+
+    long getRenderCount();
+
+    double getRenderP99Micros();
+
+    long getShopCount();
+
+    double getShopP99Micros();
+
+    /**
+     * @return Every histogram as a text table.
+     */
+    String dump();
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    void reset();
+}
@@ -0,0 +1,93 @@
+package treasurehunter;
+
+/**
+ * The GameRandom class is the source of every random roll in the Treasure Hunt game.<p>
+ * Each game gets its own GameRandom instead of sharing Math.random(), so games running on
+ * different threads never touch the same generator, and a game started from the same seed
+ * with the same moves always plays out the same way.<p>
+ * It uses the same SplitMix64 algorithm as java.util.SplittableRandom, but keeps its whole state
+ * in one long that can be read back, so a game in progress can be saved and resumed (see GameSnapshot).
+ */
+
+public class GameRandom {
+    // constants
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    // instance variables
+    private final long seed;
+    private long state;
+
+    /**
+     * Creates a GameRandom with a seed picked from the clock.
+     */
+    public GameRandom() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Creates a GameRandom that always produces the same rolls for the same seed.
+     *
+     * @param seed The starting seed.
+     */
+    public GameRandom(long seed) {
+        this(seed, seed);
+    }
+
+    private GameRandom(long seed, long state) {
+        this.seed = seed;
+        this.state = state;
+    }
+
+    /**
+     * Recreates a GameRandom exactly where a saved one left off.
+     *
+     * @param seed The saved getSeed().
+     * @param state The saved getState().
+     * @return A GameRandom that will produce the same rolls the saved one would have.
+     */
+    public static GameRandom restore(long seed, long state) {
+        return new GameRandom(seed, state);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * @return A random double between 0 (inclusive) and 1 (exclusive), like Math.random().
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * @param bound The upper bound (exclusive).
+     * @return A random int between 0 (inclusive) and bound (exclusive).
+     */
+    public int nextInt(int bound) {
+        // multiply-shift keeps the result unbiased enough for bounds as small as the game's
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Creates a new, independent GameRandom whose seed is drawn from this one.
+     * Used to hand a generator to another thread without sharing this one.
+     *
+     * @return The new GameRandom.
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    private long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,150 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The GameServer lets many players play Treasure Hunter at the same time over local sockets.<p>
+ * Every connection gets its own game (its own Hunter, Town and Shop) running on its own virtual thread.
+ * The protocol is plain text: the server sends the game's output with ANSI colors, and the client
+ * sends one command per line, exactly what would be typed at the keyboard.
+ * A session waiting for its player parks its virtual thread, so idle sessions cost almost nothing.<p>
+ * The server runs until close() is called, which stops accepting connections and ends every session.
+ * Given a save directory, a session whose player disconnects (or is still playing when the server closes) is
+ * parked there, and the game is picked up again when a player connects and gives the same name.<p>
+ * Try it with: nc localhost 4444
+ */
+
+public class GameServer implements AutoCloseable {
+    // constants
+    private static final int DEFAULT_PORT = 4444;
+
+    // instance variables
+    private final int port;
+    private final Path saveDirectory;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private volatile ServerSocket server;
+    private volatile ExecutorService sessions;
+    private volatile boolean closed;
+
+    public GameServer(int port) {
+        this(port, null);
+    }
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     * @param saveDirectory The directory to park unfinished games in, or null to let them end.
+     */
+    public GameServer(int port, Path saveDirectory) {
+        this.port = port;
+        this.saveDirectory = saveDirectory;
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * @return The port the server is listening on, or -1 if it hasn't started yet.
+     */
+    public int getLocalPort() {
+        ServerSocket current = server;
+        return current == null ? -1 : current.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a session for each.
+     *
+     * @throws IOException if the server socket cannot be opened.
+     */
+    public void start() throws IOException {
+        try (ServerSocket socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            server = socket;
+            sessions = executor;
+            if (closed) {
+                return;
+            }
+            while (!socket.isClosed()) {
+                Socket client;
+                try {
+                    client = socket.accept();
+                } catch (IOException e) {
+                    if (closed) {
+                        break; // close() shut the server socket
+                    }
+                    throw e;
+                }
+                executor.submit(() -> runSession(client, executor));
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and interrupts every session; start() returns once they have all ended.
+     * A virtual thread blocked reading from its socket is woken by the interrupt.
+     */
+    public void close() {
+        closed = true;
+        ServerSocket current = server;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        ExecutorService executor = sessions;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game over a connection, then closes it.
+     *
+     * @param socket The player's connection.
+     * @param executor Builds the session's upcoming towns in the background.
+     */
+    private void runSession(Socket socket, ExecutorService executor) {
+        activeSessions.incrementAndGet();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            OutputSink window = new TerminalOutput(socket.getOutputStream());
+            PlayerInput input = new PlayerInput(new ReaderCommandSource(socket.getInputStream()));
+            TreasureHunter game = new TreasureHunter(new GameRandom(), window, input, executor);
+            game.setSaveDirectory(saveDirectory);
+            game.play();
+        } catch (NoSuchElementException | IOException | UncheckedIOException e) {
+            // the player disconnected; nothing else to clean up
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Usage: GameServer [port] [metricsSeconds] [saveDirectory]<p>
+     * Command timings for every session are shown through JMX, and also printed that often if metricsSeconds is
+     * given and not 0. Unfinished games are parked in saveDirectory if it is given.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameMetrics.register();
+        if (args.length > 1 && Long.parseLong(args[1]) > 0) {
+            GameMetrics.startDump(Long.parseLong(args[1]), System.out);
+        }
+        Path saveDirectory = args.length > 2 ? Path.of(args[2]) : null;
+        System.out.println("Treasure Hunter server listening on localhost:" + port);
+        GameServer server = new GameServer(port, saveDirectory);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+}
@@ -0,0 +1,140 @@
+package treasurehunter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A GameSnapshot saves a game in progress (its Hunter, the Town they are in and where the world's
+ * GameRandom is) to a few dozen bytes and loads it back.<p>
+ * The format is versioned and written by hand with DataOutput (no Java serialization), and it includes
+ * every GameRandom state, so a resumed game rolls exactly what the original would have: the same rolls in
+ * this town, and the same towns after it. Items, treasures and news are saved by name, and loading rejects
+ * any name it doesn't know. TreasureHunter uses this to park a game whose player went away and bring it back
+ * when they return.<p>
+ * Format: int MAGIC, short VERSION, UTF difficulty key, int turns, then Hunter.writeTo(), Town.writeTo(), and
+ * the world's seed and state as two longs.
+ * The difficulty is saved by its key and looked up again on loading, rather than saving every setting.
+ */
+
+public class GameSnapshot {
+    // constants
+    public static final int MAGIC = 0x54485331; // "THS1"
+    public static final short VERSION = 1;
+
+    // instance variables
+    private final Hunter hunter;
+    private final Town town;
+    private final GameRandom worldRandom;
+    private final int turns;
+
+    private GameSnapshot(Hunter hunter, Town town, GameRandom worldRandom, int turns) {
+        this.hunter = hunter;
+        this.town = town;
+        this.worldRandom = worldRandom;
+        this.turns = turns;
+    }
+
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    public Town getTown() {
+        return town;
+    }
+
+    /**
+     * @return The world's random, ready to hand to a WorldGenerator that builds the towns after this one.
+     */
+    public GameRandom getWorldRandom() {
+        return worldRandom;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Saves a game in progress.
+     *
+     * @param hunter The hunter.
+     * @param town The town the hunter is in.
+     * @param worldRandom Where the world's random is, from WorldGenerator.getResumeRandom().
+     * @param turns How many turns have been played.
+     * @return The snapshot bytes.
+     */
+    public static byte[] save(Hunter hunter, Town town, GameRandom worldRandom, int turns) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(town.getProfile().getKey());
+            out.writeInt(turns);
+            hunter.writeTo(out);
+            town.writeTo(out);
+            out.writeLong(worldRandom.getSeed());
+            out.writeLong(worldRandom.getState());
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory cannot fail", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Loads a snapshot made by save(), of a game played on one of the bundled difficulties.
+     *
+     * @param data The snapshot bytes.
+     * @param window The window the restored town prints to.
+     * @return The restored game.
+     * @throws IOException if the data is not a snapshot, is cut short or is from an unknown version.
+     */
+    public static GameSnapshot load(byte[] data, OutputSink window) throws IOException {
+        return load(data, DifficultyProfile.getDefaults(), window);
+    }
+
+    /**
+     * Loads a snapshot made by save().
+     *
+     * @param data The snapshot bytes.
+     * @param profiles The difficulties the game could have been played on, by key.
+     * @param window The window the restored town prints to.
+     * @return The restored game.
+     * @throws IOException if the data is not a snapshot, is cut short, or is from an unknown version or
+     * an unknown difficulty.
+     */
+    public static GameSnapshot load(byte[] data, Map<String, DifficultyProfile> profiles, OutputSink window)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 6 || in.readInt() != MAGIC) {
+            throw new IOException("Not a Treasure Hunter snapshot");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        String key = in.readUTF();
+        DifficultyProfile profile = profiles.get(key);
+        if (profile == null) {
+            throw new IOException("Unknown difficulty " + key);
+        }
+        int turns = in.readInt();
+        Hunter hunter = Hunter.readFrom(in);
+        Town town = Town.readFrom(in, new Shop(profile), profile, hunter, window);
+        GameRandom worldRandom = GameRandom.restore(in.readLong(), in.readLong());
+        return new GameSnapshot(hunter, town, worldRandom, turns);
+    }
+
+    public static void saveTo(Path path, Hunter hunter, Town town, GameRandom worldRandom, int turns)
+            throws IOException {
+        Files.write(path, save(hunter, town, worldRandom, turns));
+    }
+
+    public static GameSnapshot loadFrom(Path path, OutputSink window) throws IOException {
+        return load(Files.readAllBytes(path), window);
+    }
+}
@@ -0,0 +1,412 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hunter Class<br /><br />
+ * This class represents the treasure hunter character (the player) in the Treasure Hunt game.<p>
+ * The hunter's gold and kit live together in one AtomicLong, so buying or selling takes the gold and changes
+ * the kit in a single compare-and-set: a hunter served by a shared Shop from several threads at once can never
+ * pay twice for one item or end up with an item they didn't pay for. Reading the gold or kit takes no lock.
+ * Treasures are added with a compare-and-set as well, so two finds at once both count.
+ * Gold never wraps around: it stops at Integer.MAX_VALUE.
+ * The cached display strings remember the gold and kit they were built from, so they are never stale.<p>
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Hunter {
+    // constants
+    static final int ALL_TREASURES = Treasure.CROWN.getBit() | Treasure.TROPHY.getBit() | Treasure.GEM.getBit();
+
+    //instance variables
+    private String hunterName;
+    // the gold in the high 32 bits, the kit (one bit per Item) in the low 32 bits
+    private final AtomicLong purse = new AtomicLong();
+    private volatile boolean gameOver;
+    private volatile boolean win;
+    private volatile boolean secretSamurai = false;
+    private final AtomicInteger treasures = new AtomicInteger(); // one bit per Treasure
+    // cached display strings, with the state they were built from
+    private volatile DisplayString info;
+    private volatile DisplayString inventory;
+
+    /**
+     * The base constructor of a Hunter assigns the name to the hunter and an empty kit.
+     *
+     * @param hunterName The hunter's name.
+     * @param startingGold The gold the hunter starts with.
+     */
+    public Hunter(String hunterName, int startingGold) {
+        this.hunterName = hunterName;
+        purse.set(pack(startingGold, 0)); // empty kit
+        gameOver = false;
+    }
+
+    /**
+     * Writes the hunter's whole state for a GameSnapshot.
+     * Items and treasures are written by name, so reordering or adding to their enums doesn't break old snapshots.
+     *
+     * @param out Where to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int flags = (gameOver ? 1 : 0) | (win ? 2 : 0) | (secretSamurai ? 8 : 0);
+        long current = purse.get();
+        int kit = kitOf(current);
+        int found = treasures.get();
+        out.writeUTF(hunterName);
+        out.writeInt(goldOf(current));
+        out.writeByte(Integer.bitCount(kit));
+        for (Item item : Item.values()) {
+            if ((kit & item.getBit()) != 0) {
+                out.writeUTF(item.getName());
+            }
+        }
+        out.writeByte(Integer.bitCount(found));
+        for (Treasure treasure : Treasure.values()) {
+            if ((found & treasure.getBit()) != 0) {
+                out.writeUTF(treasure.getName());
+            }
+        }
+        out.writeByte(flags);
+    }
+
+    /**
+     * Reads a hunter written by writeTo().
+     *
+     * @param in Where to read from.
+     * @return The restored hunter.
+     * @throws IOException if reading fails, or the data has negative gold or an unknown item or treasure.
+     */
+    public static Hunter readFrom(DataInput in) throws IOException {
+        String name = in.readUTF();
+        int gold = in.readInt();
+        if (gold < 0) {
+            throw new IOException("Negative gold " + gold);
+        }
+        int kit = 0;
+        int items = in.readUnsignedByte();
+        for (int i = 0; i < items; i++) {
+            String itemName = in.readUTF();
+            Item item = Item.fromName(itemName);
+            if (item == null) {
+                throw new IOException("Unknown item " + itemName);
+            }
+            kit |= item.getBit();
+        }
+        int found = 0;
+        int treasureCount = in.readUnsignedByte();
+        for (int i = 0; i < treasureCount; i++) {
+            String treasureName = in.readUTF();
+            Treasure treasure = Treasure.fromName(treasureName);
+            if (treasure == null) {
+                throw new IOException("Unknown treasure " + treasureName);
+            }
+            found |= treasure.getBit();
+        }
+        int flags = in.readByte();
+
+        Hunter hunter = new Hunter(name, gold);
+        hunter.purse.set(pack(gold, kit));
+        hunter.treasures.set(found);
+        hunter.gameOver = (flags & 1) != 0;
+        hunter.win = (flags & 2) != 0;
+        hunter.secretSamurai = (flags & 8) != 0;
+        return hunter;
+    }
+
+    //Accessors
+    public String getHunterName() {
+        return hunterName;
+    }
+
+    /**
+     * Updates the amount of gold the hunter has; the gold stops at Integer.MAX_VALUE rather than wrapping around.
+     *
+     * @param modifier Amount to modify gold by.
+     */
+    public void changeGold(int modifier) {
+        if (modifier == 0) {
+            return;
+        }
+        while (true) {
+            long current = purse.get();
+            long gold = (long) goldOf(current) + modifier;
+            if (purse.compareAndSet(current, pack(saturate(Math.max(gold, 0)), kitOf(current)))) {
+                if (gold < 0) {
+                    gameOver = true;
+                }
+                return;
+            }
+        }
+    }
+
+    public void setSecretSamurai(boolean secretSamurai) {
+        this.secretSamurai = secretSamurai;
+    }
+
+    public boolean isSecretSamurai() {
+        return secretSamurai;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isWin() {
+        return win;
+    }
+
+    /**
+     * Buys an item from a shop.
+     *
+     * @param item The item the hunter is buying.
+     * @param costOfItem The cost of the item.
+     * @return true if the item is successfully bought.
+     */
+    public boolean buyItem(String item, int costOfItem) {
+        Item kitItem = Item.fromName(item);
+        if (kitItem == null) {
+            return false;
+        }
+        while (true) {
+            long current = purse.get();
+            int gold = goldOf(current);
+            int kit = kitOf(current);
+            if (gold < costOfItem || (kit & kitItem.getBit()) != 0) {
+                return false;
+            }
+            if (purse.compareAndSet(current, pack(gold - costOfItem, kit | kitItem.getBit()))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The Hunter is selling an item to a shop for gold.<p>
+     * This method checks to make sure that the seller has the item and that the seller is getting more than 0 gold.
+     *
+     * @param item The item being sold.
+     * @param buyBackPrice the amount of gold earned from selling the item
+     * @return true if the item was successfully sold.
+     */
+    public boolean sellItem(String item, int buyBackPrice) {
+        Item kitItem = Item.fromName(item);
+        if (kitItem == null || buyBackPrice <= 0) {
+            return false;
+        }
+        while (true) {
+            long current = purse.get();
+            int gold = goldOf(current);
+            int kit = kitOf(current);
+            if ((kit & kitItem.getBit()) == 0) {
+                return false;
+            }
+            if (purse.compareAndSet(current, pack(saturate((long) gold + buyBackPrice), kit & ~kitItem.getBit()))) {
+                return true;
+            }
+        }
+    }
+
+    public int getGold() {
+        return goldOf(purse.get());
+    }
+
+    /**
+     * @return The kit as a bitmask with one bit set for each Item carried.
+     */
+    public int getKit() {
+        return kitOf(purse.get());
+    }
+
+    /**
+     * @return The treasures found as a bitmask with one bit set for each Treasure.
+     */
+    public int getTreasures() {
+        return treasures.get();
+    }
+
+    /**
+     * Removes an item from the kit by clearing its bit.
+     *
+     * @param item The item to be removed.
+     */
+    public void removeItemFromKit(Item item) {
+        while (true) {
+            long current = purse.get();
+            int kit = kitOf(current);
+            if ((kit & item.getBit()) == 0
+                    || purse.compareAndSet(current, pack(goldOf(current), kit & ~item.getBit()))) {
+                return;
+            }
+        }
+    }
+
+    public void removeItemFromKit(String item) {
+        Item kitItem = Item.fromName(item);
+        if (kitItem != null) {
+            removeItemFromKit(kitItem);
+        }
+    }
+
+    /**
+     * Checks to make sure that the item is not already in the kit.
+     * If not, it sets the item's bit in the kit. Every item has its own bit, so the kit is never full.
+     *
+     * @param item The item to be added to the kit.
+     * @return true if the item is not in the kit and has been added.
+     */
+    private boolean addItem(Item item) {
+        while (true) {
+            long current = purse.get();
+            int kit = kitOf(current);
+            if ((kit & item.getBit()) != 0) {
+                return false;
+            }
+            if (purse.compareAndSet(current, pack(goldOf(current), kit | item.getBit()))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Puts an item straight into the kit, without paying for it, for a DifficultyProfile's starting kit.
+     *
+     * @param item The item to be added to the kit.
+     * @return true if the item was added, false if it is already in the kit.
+     */
+    public boolean addStartingItem(Item item) {
+        return addItem(item);
+    }
+
+    /**
+     * Checks if the kit has the specified item.
+     *
+     * @param item The search item
+     * @return true if the item is found.
+     */
+    public boolean hasItemInKit(Item item) {
+        return (getKit() & item.getBit()) != 0;
+    }
+
+    public boolean hasItemInKit(String item) {
+        Item kitItem = Item.fromName(item);
+        return kitItem != null && hasItemInKit(kitItem);
+    }
+
+     /**
+     * Returns a printable representation of the inventory, which
+     * is a list of the items in kit, with a space between each item.
+     *
+     * The string is cached until the kit changes.
+     *
+     * @return The printable String representation of the inventory.
+     */
+    public String getInventory() {
+        return inventoryFor(getKit());
+    }
+
+    private String inventoryFor(int kit) {
+        DisplayString cached = inventory;
+        if (cached == null || cached.state != kit) {
+            StringBuilder printableKit = new StringBuilder();
+            for (Item item : Item.values()) {
+                if ((kit & item.getBit()) != 0) {
+                    printableKit.append(item.getName()).append(' ');
+                }
+            }
+            cached = new DisplayString(kit, 0, printableKit.toString());
+            inventory = cached;
+        }
+        return cached.text;
+    }
+
+
+    /**
+     * The string is cached until the gold, kit or treasures change,
+     * so showing it every turn costs nothing when nothing happened.
+     *
+     * @return A string representation of the hunter.
+     */
+    public String infoString() {
+        long current = purse.get();
+        int treasures = this.treasures.get();
+        DisplayString cached = info;
+        if (cached == null || cached.state != current || cached.treasures != treasures) {
+            StringBuilder str = new StringBuilder(hunterName).append(" has ").append(goldOf(current)).append(" gold");
+            if (kitOf(current) != 0) {
+                str.append(" and ").append(inventoryFor(kitOf(current)));
+            }
+            if (treasures != 0) {
+                str.append("\nand ");
+                for (Treasure treasure : Treasure.values()) {
+                    if ((treasures & treasure.getBit()) != 0) {
+                        str.append(treasure.getName()).append(' ');
+                    }
+                }
+            }
+            cached = new DisplayString(current, treasures, str.toString());
+            info = cached;
+        }
+        return cached.text;
+    }
+
+    /**
+     * Adds a treasure to the hunter's collection unless it is a duplicate.
+     *
+     * @param treasure The treasure found.
+     * @return true if the treasure was added, false if the hunter already had one.
+     */
+    public boolean addTreasure(Treasure treasure) {
+        while (true) {
+            int found = treasures.get();
+            if ((found & treasure.getBit()) != 0) {
+                return false;
+            }
+            if (treasures.compareAndSet(found, found | treasure.getBit())) {
+                if (((found | treasure.getBit()) & ALL_TREASURES) == ALL_TREASURES) {
+                    win = true;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return The gold, or Integer.MAX_VALUE if there is more than that.
+     */
+    private static int saturate(long gold) {
+        return (int) Math.min(gold, Integer.MAX_VALUE);
+    }
+
+    private static long pack(int gold, int kit) {
+        return (long) gold << 32 | (kit & 0xffffffffL);
+    }
+
+    private static int goldOf(long purse) {
+        return (int) (purse >> 32);
+    }
+
+    private static int kitOf(long purse) {
+        return (int) purse;
+    }
+
+    /**
+     * A display string and the state it shows, so it can be checked against the hunter's state without a lock.
+     */
+    private static class DisplayString {
+        private final long state;
+        private final int treasures;
+        private final String text;
+
+        private DisplayString(long state, int treasures, String text) {
+            this.state = state;
+            this.treasures = treasures;
+            this.text = text;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package treasurehunter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Item enum lists every item a Hunter can carry in their kit.<p>
+ * Each item owns one bit, so a whole kit fits in a single int (see Hunter).
+ */
+
+public enum Item {
+    WATER("water"),
+    ROPE("rope"),
+    MACHETE("machete"),
+    HORSE("horse"),
+    BOAT("boat"),
+    BOOTS("boots"),
+    SHOVEL("shovel"),
+    SWORD("sword");
+
+    // static variables
+    private static final Map<String, Item> BY_NAME = new HashMap<>();
+
+    static {
+        for (Item item : values()) {
+            BY_NAME.put(item.name, item);
+        }
+    }
+
+    // instance variables
+    private final String name;
+    private final int bit;
+
+    Item(String name) {
+        this.name = name;
+        bit = 1 << ordinal();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * Looks up an item by the name the player types in.
+     *
+     * @param name The lowercase item name, e.g. "rope".
+     * @return The matching Item, or null if there is no such item.
+     */
+    public static Item fromName(String name) {
+        return BY_NAME.get(name);
+    }
+}
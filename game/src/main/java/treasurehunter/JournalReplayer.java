@@ -0,0 +1,213 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The JournalReplayer rebuilds a game from an ActionJournal.<p>
+ * It plays the game again with the journal's seed and difficulties and feeds it the same lines the player
+ * typed, with no window, so the Hunter and Town end up exactly where they were when the journal stopped.
+ * The last recorded outcome is then used to check that the replay really went the same way.<p>
+ * If the player picked up a parked game, the journal holds its snapshot, and the replay starts from the
+ * snapshot with the lines typed after it.
+ */
+
+public class JournalReplayer {
+    // instance variables
+    private long seed;
+    private Map<String, DifficultyProfile> profiles;
+    private List<String> lines;
+    // the parked game the player picked up, or null; the lines from resumeLine on were typed after it
+    private byte[] resumed;
+    private int resumeLine;
+    private int outcomes;
+    private int lastGold;
+    private int lastKit;
+    private int lastTreasures;
+    private byte lastFlags;
+
+    /**
+     * Reads a journal file.
+     *
+     * @param path The journal file.
+     * @throws IOException if the file cannot be read, is not a journal, is cut short in the middle of a record,
+     * has a difficulty with bad settings, or has a parked game that can't be read.
+     */
+    public JournalReplayer(Path path) throws IOException {
+        lines = new ArrayList<>();
+        outcomes = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 14 || buffer.getInt() != ActionJournal.MAGIC) {
+                throw new IOException(path + " is not a Treasure Hunter journal");
+            }
+            short version = buffer.getShort();
+            if (version != ActionJournal.VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            seed = buffer.getLong();
+            readProfiles(buffer);
+            readRecords(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(path + " is cut short", e);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The difficulties the player could pick from, by key.
+     */
+    public Map<String, DifficultyProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * @return Every line the player typed, in order.
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * @return true if the journaled game was a parked game the player picked up.
+     */
+    public boolean isResumed() {
+        return resumed != null;
+    }
+
+    /**
+     * @return How many menu choices were recorded.
+     */
+    public int getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Plays the journaled game again without a window.
+     *
+     * @return The replayed game, left where the journal stopped.
+     */
+    public TreasureHunter replay() {
+        List<String> typed = resumed == null ? lines : lines.subList(resumeLine, lines.size());
+        PlayerInput input = new PlayerInput(new ListCommandSource(typed));
+        TreasureHunter game = new TreasureHunter(new GameRandom(seed), NullOutput.INSTANCE, input);
+        game.setProfiles(profiles);
+        if (resumed != null) {
+            try {
+                game.resume(resumed);
+            } catch (IOException e) {
+                // already read once when the journal was read, so this can't happen
+                throw new UncheckedIOException(e);
+            }
+        }
+        try {
+            game.play();
+        } catch (NoSuchElementException e) {
+            // the journal stopped mid-game (e.g. the player disconnected); the state so far is what we want
+        }
+        return game;
+    }
+
+    /**
+     * Checks a hunter against the last outcome in the journal.
+     *
+     * @param hunter The replayed hunter.
+     * @return true if gold, kit, treasures and win/game over all match, or nothing was recorded.
+     */
+    public boolean matchesLastOutcome(Hunter hunter) {
+        if (outcomes == 0) {
+            return true;
+        }
+        byte flags = 0;
+        if (hunter.isWin()) {
+            flags |= ActionJournal.WIN_FLAG;
+        }
+        if (hunter.isGameOver()) {
+            flags |= ActionJournal.GAME_OVER_FLAG;
+        }
+        return hunter.getGold() == lastGold && hunter.getKit() == lastKit
+                && hunter.getTreasures() == lastTreasures && flags == lastFlags;
+    }
+
+    private void readProfiles(ByteBuffer buffer) throws IOException {
+        Map<String, DifficultyProfile> read = new LinkedHashMap<>();
+        int count = buffer.getShort();
+        for (int i = 0; i < count; i++) {
+            String key = getString(buffer);
+            Map<String, String> settings = new LinkedHashMap<>();
+            int settingCount = buffer.getShort();
+            for (int j = 0; j < settingCount; j++) {
+                settings.put(getString(buffer), getString(buffer));
+            }
+            try {
+                read.put(key, DifficultyProfile.of(key, settings));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Difficulty " + key + ": " + e.getMessage(), e);
+            }
+        }
+        profiles = Collections.unmodifiableMap(read);
+    }
+
+    private void readRecords(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == ActionJournal.COMMAND) {
+                lines.add(String.valueOf((char) buffer.get()));
+            } else if (type == ActionJournal.LINE) {
+                lines.add(getString(buffer));
+            } else if (type == ActionJournal.OUTCOME) {
+                lastGold = buffer.getInt();
+                lastKit = buffer.getInt();
+                lastTreasures = buffer.getInt();
+                lastFlags = buffer.get();
+                outcomes++;
+            } else if (type == ActionJournal.RESUME) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("A parked game of " + length + " bytes doesn't fit in the journal");
+                }
+                resumed = new byte[length];
+                buffer.get(resumed);
+                resumeLine = lines.size();
+                // checked now, so a bad snapshot is reported here rather than by replay()
+                GameSnapshot.load(resumed, profiles, NullOutput.INSTANCE);
+            } else {
+                throw new IOException("Unknown journal record type " + type);
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Usage: JournalReplayer journalFile
+     */
+    public static void main(String[] args) throws IOException {
+        JournalReplayer replayer = new JournalReplayer(Path.of(args[0]));
+        TreasureHunter game = replayer.replay();
+        System.out.println("Seed " + replayer.getSeed() + ", " + replayer.getLines().size() + " lines, "
+                + replayer.getOutcomes() + " choices");
+        System.out.println(game.getHunter().infoString());
+        System.out.println(replayer.matchesLastOutcome(game.getHunter()) ? "Replay matches the journal." : "Replay does NOT match the journal!");
+    }
+}
@@ -0,0 +1,332 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The Leaderboard keeps every finished game in an append-only file and the best games of each difficulty
+ * in memory.<p>
+ * Every record is the same size, so the file is just the header followed by records one after another,
+ * and a record's number is enough to find it. New records are collected in a buffer and written in large
+ * batches, like the ActionJournal. Only the best few games (top) of each difficulty are kept in memory, in a
+ * sorted tree, so asking for the best n costs O(log top + n) however many games the file holds, and adding
+ * a game that doesn't make the top is a single comparison. Opening a file reads it once to rebuild the trees.
+ * A record cut short by a crash is dropped from the file, and a record whose lengths or numbers are out of
+ * range is left out of the rankings.<p>
+ * Each record holds its difficulty's whole key, so difficulties whose keys start with the same letter
+ * ("s" and "samurai", say) are never ranked together. A key must fit in KEY_BYTES bytes of UTF-8.<p>
+ * Format, all numbers big-endian:
+ * <pre>
+ * header: int MAGIC, short VERSION
+ * record: byte nameLength, 27 bytes UTF-8 name, byte keyLength, 15 bytes UTF-8 difficulty key,
+ *         byte flags (1 = win, 2 = game over), byte treasures, short unused, int gold, int turns,
+ *         long time   (64 bytes)
+ * </pre>
+ * The methods are synchronized, so one Leaderboard can be shared by every session on a GameServer.
+ */
+
+public class Leaderboard implements AutoCloseable {
+    // constants
+    public static final int MAGIC = 0x54484c31; // "THL1"
+    public static final short VERSION = 1;
+    public static final int DEFAULT_TOP = 100;
+    private static final int HEADER_SIZE = 6;
+    private static final int RECORD_SIZE = 64;
+    private static final int NAME_BYTES = 27;
+    public static final int KEY_BYTES = 15;
+    private static final byte WIN_FLAG = 1;
+    private static final byte GAME_OVER_FLAG = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // how many records to map at once when reading, well under the 2 GB a mapping can hold
+    private static final int RECORDS_PER_MAP = 1 << 24;
+    private static final int MAX_RANKED = (1 << 30) - 1;
+
+    // instance variables
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int top;
+    // by difficulty key
+    private final Map<String, Ranking> rankings;
+    private long records;
+
+    /**
+     * Opens a leaderboard file, creating it if needed, and reads the games already in it.
+     *
+     * @param path The leaderboard file.
+     * @param top How many of the best games to keep in memory for each difficulty.
+     * @throws IOException if the file cannot be opened or is not a leaderboard.
+     */
+    public Leaderboard(Path path, int top) throws IOException {
+        this.top = top;
+        rankings = new HashMap<>();
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                // the header goes out with the first batch of records
+                buffer.putInt(MAGIC).putShort(VERSION);
+                records = 0;
+            } else {
+                readHeader(path);
+                records = (size - HEADER_SIZE) / RECORD_SIZE;
+                // a record cut short by a crash is dropped
+                channel.truncate(HEADER_SIZE + records * RECORD_SIZE);
+                channel.position(HEADER_SIZE + records * RECORD_SIZE);
+                readRecords();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Leaderboard(Path path) throws IOException {
+        this(path, DEFAULT_TOP);
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param hunter The hunter at the end of the game.
+     * @param difficulty The difficulty's key, e.g. "e", "n", "h" or "test".
+     * @param turns How many menu choices the game took.
+     * @return The game's entry.
+     * @throws IllegalArgumentException if the key is empty or longer than KEY_BYTES bytes of UTF-8.
+     */
+    public synchronized LeaderboardEntry add(Hunter hunter, String difficulty, int turns) {
+        byte[] key = difficulty.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || key.length > KEY_BYTES) {
+            throw new IllegalArgumentException("Difficulty key " + difficulty + " doesn't fit in a leaderboard record");
+        }
+        byte[] name = nameBytes(hunter.getHunterName());
+        byte flags = (byte) ((hunter.isWin() ? WIN_FLAG : 0) | (hunter.isGameOver() ? GAME_OVER_FLAG : 0));
+        long time = System.currentTimeMillis();
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+        }
+        putPadded(name, NAME_BYTES);
+        putPadded(key, KEY_BYTES);
+        buffer.put(flags).put((byte) hunter.getTreasures()).putShort((short) 0);
+        buffer.putInt(hunter.getGold()).putInt(turns).putLong(time);
+        LeaderboardEntry entry = new LeaderboardEntry(new String(name, StandardCharsets.UTF_8), difficulty,
+                hunter.isWin(), hunter.isGameOver(), hunter.getGold(), hunter.getTreasures(), turns, time, records);
+        rank(entry);
+        records++;
+        return entry;
+    }
+
+    /**
+     * Records a finished Simulation, under the hunter's name.
+     *
+     * @param simulation The finished game.
+     * @return The game's entry.
+     */
+    public LeaderboardEntry add(Simulation simulation) {
+        return add(simulation.getHunter(), simulation.getDifficulty(), simulation.getTurns());
+    }
+
+    /**
+     * Gets the best games of a difficulty.
+     *
+     * @param difficulty The difficulty's key, e.g. "e", "n", "h" or "test".
+     * @param n How many to get; no more than the top this leaderboard keeps are ever returned.
+     * @return The best games, best first.
+     */
+    public synchronized List<LeaderboardEntry> getTop(String difficulty, int n) {
+        List<LeaderboardEntry> best = new ArrayList<>();
+        Ranking ranking = rankings.get(difficulty);
+        if (ranking != null) {
+            Iterator<LeaderboardEntry> entries = ranking.entries.iterator();
+            while (best.size() < n && entries.hasNext()) {
+                best.add(entries.next());
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return How many games the file holds.
+     */
+    public synchronized long size() {
+        return records;
+    }
+
+    /**
+     * Writes every game recorded so far to the file.
+     */
+    public synchronized void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes what is left and closes the file.
+     */
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readHeader(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.read(header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a Treasure Hunter leaderboard");
+        }
+        short version = header.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported leaderboard version " + version);
+        }
+    }
+
+    /**
+     * Reads every record in the file into the rankings, creating entries only for games that make the top.
+     */
+    private void readRecords() throws IOException {
+        byte[] name = new byte[NAME_BYTES];
+        byte[] key = new byte[KEY_BYTES];
+        for (long first = 0; first < records; first += RECORDS_PER_MAP) {
+            long count = Math.min(RECORDS_PER_MAP, records - first);
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE,
+                    count * RECORD_SIZE);
+            for (long record = first; record < first + count; record++) {
+                int start = map.position();
+                int nameLength = Byte.toUnsignedInt(map.get());
+                map.position(start + 1 + NAME_BYTES);
+                int keyLength = Byte.toUnsignedInt(map.get());
+                map.get(key, 0, KEY_BYTES);
+                byte flags = map.get();
+                int treasures = Byte.toUnsignedInt(map.get());
+                map.getShort();
+                int gold = map.getInt();
+                int turns = map.getInt();
+                long time = map.getLong();
+                if (nameLength > NAME_BYTES || keyLength == 0 || keyLength > KEY_BYTES || gold < 0 || turns < 0) {
+                    // a damaged record is skipped, like one cut short by a crash
+                    continue;
+                }
+                boolean win = (flags & WIN_FLAG) != 0;
+                String difficulty = new String(key, 0, keyLength, StandardCharsets.UTF_8);
+                Ranking ranking = rankingFor(difficulty);
+                if (ranking.entries.size() >= top && rankOf(win, treasures, gold, turns) <= ranking.worstRank) {
+                    continue;
+                }
+                map.get(start + 1, name, 0, nameLength);
+                rank(new LeaderboardEntry(new String(name, 0, nameLength, StandardCharsets.UTF_8),
+                        difficulty, win, (flags & GAME_OVER_FLAG) != 0, gold, treasures,
+                        turns, time, record));
+            }
+        }
+    }
+
+    /**
+     * Puts an entry in its difficulty's top games, if it is good enough.
+     */
+    private void rank(LeaderboardEntry entry) {
+        Ranking ranking = rankingFor(entry.getDifficulty());
+        long rank = rankOf(entry.isWin(), entry.getTreasures(), entry.getGold(), entry.getTurns());
+        if (ranking.entries.size() >= top) {
+            // equal rank loses too, since the entry already there was recorded first
+            if (rank <= ranking.worstRank) {
+                return;
+            }
+            ranking.entries.pollLast();
+        }
+        ranking.entries.add(entry);
+        LeaderboardEntry worst = ranking.entries.last();
+        ranking.worstRank = rankOf(worst.isWin(), worst.getTreasures(), worst.getGold(), worst.getTurns());
+    }
+
+    private Ranking rankingFor(String difficulty) {
+        Ranking ranking = rankings.get(difficulty);
+        if (ranking == null) {
+            ranking = new Ranking();
+            rankings.put(difficulty, ranking);
+        }
+        return ranking;
+    }
+
+    /**
+     * Writes a length byte and then the bytes, padded with zeros to the given size.
+     */
+    private void putPadded(byte[] bytes, int size) {
+        buffer.put((byte) bytes.length).put(bytes);
+        for (int i = bytes.length; i < size; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Packs everything but the record number that LeaderboardEntry.BEST_FIRST sorts by into one number,
+     * bigger for better games, so most games can be turned away without making an entry for them.
+     */
+    private static long rankOf(boolean win, int treasures, int gold, int turns) {
+        long treasureCount = Integer.bitCount(treasures & Hunter.ALL_TREASURES);
+        return (win ? 1L << 62 : 0) | treasureCount << 60 | (long) Math.min(gold, MAX_RANKED) << 30
+                | (MAX_RANKED - Math.min(turns, MAX_RANKED));
+    }
+
+    private static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_BYTES) {
+            return bytes;
+        }
+        // cut at the start of a character, never in the middle of one
+        int length = NAME_BYTES;
+        while (length > 0 && (bytes[length] & 0xc0) == 0x80) {
+            length--;
+        }
+        byte[] cut = new byte[length];
+        System.arraycopy(bytes, 0, cut, 0, length);
+        return cut;
+    }
+
+    /**
+     * The best games of one difficulty, best first, and the rank of the worst of them.
+     */
+    private static class Ranking {
+        private final TreeSet<LeaderboardEntry> entries = new TreeSet<>(LeaderboardEntry.BEST_FIRST);
+        private long worstRank;
+    }
+
+    /**
+     * Usage: Leaderboard file [difficulty] [n]<p>
+     * Prints the best n games (10 if not given) of a difficulty (normal if not given).
+     */
+    public static void main(String[] args) throws IOException {
+        String difficulty = args.length > 1 ? args[1].toLowerCase() : "n";
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long start = System.nanoTime();
+        try (Leaderboard leaderboard = new Leaderboard(Path.of(args[0]), Math.max(n, DEFAULT_TOP))) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(leaderboard.size() + " games, read in " + millis + " ms. Best on " + difficulty + ":");
+            int place = 1;
+            for (LeaderboardEntry entry : leaderboard.getTop(difficulty, n)) {
+                System.out.println(place++ + ". " + entry.infoString());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package treasurehunter;
+
+import java.util.Comparator;
+
+/**
+ * One finished game on the Leaderboard.<p>
+ * Better games sort first: a win beats a loss, then more treasures, more gold and fewer turns,
+ * and between equal games the one recorded first.
+ */
+
+public class LeaderboardEntry {
+    // constants
+    public static final Comparator<LeaderboardEntry> BEST_FIRST = Comparator
+            .comparing(LeaderboardEntry::isWin).reversed()
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::getTreasureCount).reversed())
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::getGold).reversed())
+            .thenComparingInt(LeaderboardEntry::getTurns)
+            .thenComparingLong(LeaderboardEntry::getRecord);
+
+    // instance variables
+    private final String name;
+    private final String difficulty;
+    private final boolean win;
+    private final boolean gameOver;
+    private final int gold;
+    private final int treasures;
+    private final int turns;
+    private final long time;
+    private final long record;
+
+    /**
+     * @param name The hunter's name.
+     * @param difficulty The difficulty's key, e.g. "e", "n", "h" or "test".
+     * @param win true if the hunter won.
+     * @param gameOver true if the hunter died.
+     * @param gold The hunter's gold at the end.
+     * @param treasures The hunter's treasures, as returned by Hunter.getTreasures().
+     * @param turns How many menu choices the game took.
+     * @param time When the game finished, in milliseconds since 1970.
+     * @param record Where the game is in the leaderboard file, counting from 0.
+     */
+    public LeaderboardEntry(String name, String difficulty, boolean win, boolean gameOver, int gold, int treasures,
+                            int turns, long time, long record) {
+        this.name = name;
+        this.difficulty = difficulty;
+        this.win = win;
+        this.gameOver = gameOver;
+        this.gold = gold;
+        this.treasures = treasures;
+        this.turns = turns;
+        this.time = time;
+        this.record = record;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public boolean isWin() {
+        return win;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getGold() {
+        return gold;
+    }
+
+    public int getTreasures() {
+        return treasures;
+    }
+
+    public int getTreasureCount() {
+        return Integer.bitCount(treasures & Hunter.ALL_TREASURES);
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getRecord() {
+        return record;
+    }
+
+    public String infoString() {
+        String result = win ? "won" : gameOver ? "died" : "gave up";
+        return name + " " + result + " with " + gold + " gold and " + getTreasureCount() + " treasures in " + turns + " turns";
+    }
+}
@@ -0,0 +1,40 @@
+package treasurehunter;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Hands out the player's lines from a list in memory, for bots, tests and replaying a journal.
+ */
+
+public class ListCommandSource implements CommandSource {
+    // instance variables
+    private final List<String> lines;
+    private int next;
+
+    /**
+     * @param lines The lines to hand out, in order.
+     */
+    public ListCommandSource(List<String> lines) {
+        this.lines = lines;
+        next = 0;
+    }
+
+    public ListCommandSource(String... lines) {
+        this(List.of(lines));
+    }
+
+    public String nextLine() {
+        if (next >= lines.size()) {
+            throw new NoSuchElementException("No more input");
+        }
+        return lines.get(next++);
+    }
+
+    /**
+     * @return How many lines have not been handed out yet.
+     */
+    public int remaining() {
+        return lines.size() - next;
+    }
+}
@@ -0,0 +1,524 @@
+package treasurehunter;
+
+import java.util.Arrays;
+
+/**
+ * The MarkovEngine works out the odds of the game instead of sampling them.<p>
+ * It follows the same greedy strategy as Simulation.playGreedy() and treats the game as a Markov chain
+ * whose state, each time the hunter walks into a new town, is (gold, kit, treasures). From that state
+ * every random roll in Town is followed with its real probability:
+ * <ul>
+ * <li>the new town's terrain, treasure and toughness,</li>
+ * <li>the treasure hunt (and the chance of dropping the treasure in tough towns),</li>
+ * <li>digging,</li>
+ * <li>brawls, solved exactly as a random walk on gold until the hunter can afford what they need or dies,</li>
+ * <li>the item breaking when the terrain is crossed.</li>
+ * </ul>
+ * Every chance comes from the DifficultyProfile, so any variant of a difficulty can be worked out.
+ * What happens inside one town is worked out once per kind of town and remembered, then the chain between
+ * towns is solved by repeated sweeps until the answers stop changing.<p>
+ * The answer is an approximation, not the exact odds: a hunter walking into a town with more gold than the cap
+ * is treated as having the cap (plus the extra gold, which is only ever kept on a win), so a cap below the gold
+ * hunters really reach changes the result. There is no turn limit either. With the default cap the results match
+ * BatchSimulator (with a generous maxTurns) to within its sampling error; a solve takes a couple of seconds.
+ */
+
+public class MarkovEngine {
+    // constants
+    public static final int DEFAULT_GOLD_CAP = 80;
+    static final int KITS = 1 << 7; // every Item but the sword, which the greedy hunter never has
+    static final int TREASURE_SETS = 1 << 3;
+    static final int ALL_TREASURES = TREASURE_SETS - 1;
+    private static final double TOLERANCE = 1e-9;
+    // over-relaxing each sweep's change settles the values in about half as many sweeps
+    private static final double RELAXATION = 1.4;
+
+    // these mirror the terrain roll in Town, and are shared with PolicySolver
+    static final double[] TERRAIN_CHANCES = {
+            .166666666, .3333333333 - .166666666, .5 - .3333333333,
+            .666666666666 - .5, .833333333333 - .666666666666, 1 - .833333333333
+    };
+    static final Item[] TERRAIN_ITEMS = {Item.ROPE, Item.BOAT, Item.HORSE, Item.WATER, Item.MACHETE, Item.BOOTS};
+
+    // instance variables
+    private final int goldCap;
+    private final DifficultyProfile profile;
+    private final double[] treasureChances; // crown, trophy, gem, dust
+    private final int startingGold;
+    private final int startingKit;
+    private final int shovelCost;
+    private final int[] terrainCosts;
+    // exits[terrain][tough][inner state], the town's outcome from each state it can be entered in
+    private final Exits[][][] exits;
+    private double[] winChance;
+    private double[] expectedGold;
+    private int sweeps;
+    // reused by addTown to avoid allocating
+    private final double[] sum = new double[2];
+
+    /**
+     * Sets up the engine for a difficulty.
+     *
+     * @param profile The difficulty, which may be a variant no player can pick.
+     * @param goldCap The most gold tracked exactly; more is valued as the cap plus the extra gold.
+     */
+    public MarkovEngine(DifficultyProfile profile, int goldCap) {
+        this.goldCap = goldCap;
+        this.profile = profile;
+        double treasureChance = profile.getTreasureChance();
+        treasureChances = new double[] {treasureChance, treasureChance, treasureChance, 1 - 3 * treasureChance};
+        startingGold = profile.getStartingGold();
+        startingKit = profile.getStartingKit() & (KITS - 1);
+        PriceTable prices = profile.getPriceTable();
+        shovelCost = prices.getBuyPrice(Item.SHOVEL);
+        terrainCosts = new int[TERRAIN_ITEMS.length];
+        for (int i = 0; i < TERRAIN_ITEMS.length; i++) {
+            terrainCosts[i] = prices.getBuyPrice(TERRAIN_ITEMS[i]);
+        }
+        exits = new Exits[TERRAIN_ITEMS.length][2][];
+    }
+
+    /**
+     * @param difficulty "e", "n" or "h", or any other bundled difficulty.
+     * @param goldCap The most gold tracked exactly; more is valued as the cap plus the extra gold.
+     */
+    public MarkovEngine(String difficulty, int goldCap) {
+        this(DifficultyProfile.forKey(difficulty), goldCap);
+    }
+
+    public MarkovEngine(String difficulty) {
+        this(difficulty, DEFAULT_GOLD_CAP);
+    }
+
+    /**
+     * @return The chance a new hunter wins the game.
+     */
+    public double getWinChance() {
+        solve();
+        return winChance[state(Math.min(startingGold, goldCap), startingKit, 0)];
+    }
+
+    /**
+     * @return The hunter's expected gold when the game ends (0 if they die).
+     */
+    public double getExpectedGold() {
+        solve();
+        int start = state(Math.min(startingGold, goldCap), startingKit, 0);
+        return expectedGold[start] + Math.max(0, startingGold - goldCap) * winChance[start];
+    }
+
+    /**
+     * Looks up the chance of winning from any point where the hunter walks into a new town.
+     *
+     * @param gold The hunter's gold.
+     * @param kit The hunter's kit, as returned by Hunter.getKit().
+     * @param treasures The hunter's treasures, as returned by Hunter.getTreasures().
+     * @return The chance of winning from there.
+     */
+    public double getWinChance(int gold, int kit, int treasures) {
+        solve();
+        return winChance[state(Math.min(gold, goldCap), kit & (KITS - 1), treasures & ALL_TREASURES)];
+    }
+
+    public int getSweeps() {
+        return sweeps;
+    }
+
+    /**
+     * Solves the chain between towns, once.<p>
+     * Treasures are never lost, so from a set of treasures the hunter either keeps the same set or moves to
+     * a bigger one. Solving the sets from fullest to emptiest means each set only has to be swept until its
+     * own values settle, with everything it can move on to already known.
+     */
+    private void solve() {
+        if (winChance != null) {
+            return;
+        }
+        for (int terrain = 0; terrain < TERRAIN_ITEMS.length; terrain++) {
+            for (int tough = 0; tough < 2; tough++) {
+                exits[terrain][tough] = new TownSolver(terrain, tough == 1).solveEntries();
+            }
+        }
+
+        int states = (goldCap + 1) * KITS * TREASURE_SETS;
+        int level = (goldCap + 1) * KITS;
+        winChance = new double[states];
+        expectedGold = new double[states];
+        double[] baseWin = new double[level];
+        double[] baseGold = new double[level];
+        double[] stayChance = new double[2];
+        // the rows only depend on how many treasures are missing, indexed by that
+        Rows[] rowsByMissing = new Rows[treasureChances.length];
+        sweeps = 0;
+        for (int treasures = ALL_TREASURES - 1; treasures >= 0; treasures--) {
+            // everything that leads to a bigger set of treasures is already solved, so add it up once
+            for (int kit = 0; kit < KITS; kit++) {
+                for (int gold = 0; gold <= goldCap; gold++) {
+                    enterTown(gold, kit, treasures, stayChance);
+                    baseWin[kit * (goldCap + 1) + gold] = sum[0];
+                    baseGold[kit * (goldCap + 1) + gold] = sum[1];
+                }
+            }
+            // what's left only moves around inside this set, so gather it into one row per state and sweep
+            int missing = Integer.bitCount(ALL_TREASURES & ~treasures);
+            if (rowsByMissing[missing] == null) {
+                rowsByMissing[missing] = stayRows(stayChance);
+            }
+            Rows rows = rowsByMissing[missing];
+            int offset = treasures * level;
+            double change = 1;
+            while (change > TOLERANCE) {
+                change = 0;
+                for (int s = 0; s < level; s++) {
+                    double win = baseWin[s];
+                    double finalGold = baseGold[s];
+                    for (int i = rows.start[s]; i < rows.start[s + 1]; i++) {
+                        int to = offset + rows.to[i];
+                        win += rows.chances[i] * winChance[to];
+                        finalGold += rows.chances[i] * expectedGold[to] + rows.extraGold[i] * winChance[to];
+                    }
+                    change = Math.max(change, Math.abs(win - winChance[offset + s]));
+                    change = Math.max(change, Math.abs(finalGold - expectedGold[offset + s]) / Math.max(1, finalGold));
+                    winChance[offset + s] += RELAXATION * (win - winChance[offset + s]);
+                    expectedGold[offset + s] += RELAXATION * (finalGold - expectedGold[offset + s]);
+                }
+                sweeps++;
+            }
+        }
+    }
+
+    /**
+     * Gathers the ways out of every kind of town that leave the treasures as they were, for every gold and kit,
+     * merging exits that land in the same state.
+     *
+     * @param stayChance The chance of keeping the same treasures in a calm and in a tough town.
+     */
+    private Rows stayRows(double[] stayChance) {
+        int level = (goldCap + 1) * KITS;
+        double[] chances = new double[level];
+        double[] extraGold = new double[level];
+        boolean[] seen = new boolean[level];
+        int[] touched = new int[level];
+        Rows rows = new Rows();
+        rows.start = new int[level + 1];
+        rows.to = new int[level * 16];
+        rows.chances = new double[rows.to.length];
+        rows.extraGold = new double[rows.to.length];
+        int size = 0;
+        for (int kit = 0; kit < KITS; kit++) {
+            for (int gold = 0; gold <= goldCap; gold++) {
+                int touchedCount = 0;
+                for (int tough = 0; tough < 2; tough++) {
+                    for (int terrain = 0; terrain < TERRAIN_ITEMS.length; terrain++) {
+                        double chance = stayChance[tough] * TERRAIN_CHANCES[terrain];
+                        Item needed = TERRAIN_ITEMS[terrain];
+                        boolean shovel = (kit & Item.SHOVEL.getBit()) != 0;
+                        boolean item = (kit & needed.getBit()) != 0;
+                        Exits out = exits[terrain][tough][innerState(gold, shovel, item, false)];
+                        int otherItems = kit & ~(Item.SHOVEL.getBit() | needed.getBit());
+                        for (int i = 0; i < out.size; i++) {
+                            int exit = out.exits[i];
+                            int exitKit = otherItems
+                                    | ((exit & 1) != 0 ? Item.SHOVEL.getBit() : 0)
+                                    | ((exit & 2) != 0 ? needed.getBit() : 0);
+                            int exitGold = exit >> 2;
+                            int to = exitKit * (goldCap + 1) + Math.min(exitGold, goldCap);
+                            double over = Math.max(0, exitGold - goldCap);
+                            if (!seen[to]) {
+                                seen[to] = true;
+                                touched[touchedCount++] = to;
+                            }
+                            chances[to] += chance * out.chances[i];
+                            extraGold[to] += chance * out.chances[i] * over;
+                        }
+                    }
+                }
+                if (size + touchedCount > rows.to.length) {
+                    int length = Math.max(rows.to.length * 2, size + touchedCount);
+                    rows.to = Arrays.copyOf(rows.to, length);
+                    rows.chances = Arrays.copyOf(rows.chances, length);
+                    rows.extraGold = Arrays.copyOf(rows.extraGold, length);
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int to = touched[i];
+                    rows.to[size] = to;
+                    rows.chances[size] = chances[to];
+                    rows.extraGold[size] = extraGold[to];
+                    size++;
+                    chances[to] = 0;
+                    extraGold[to] = 0;
+                    seen[to] = false;
+                }
+                rows.start[kit * (goldCap + 1) + gold + 1] = size;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Averages over every town the hunter could walk into where they end up with more treasures, and
+     * puts the result in sum. The chance of walking out with the same treasures, for a calm and a tough
+     * town, is put in stayChance.
+     */
+    private void enterTown(int gold, int kit, int treasures, double[] stayChance) {
+        double win = 0;
+        double finalGold = 0;
+        for (int tough = 0; tough < 2; tough++) {
+            double toughChance = tough == 1 ? profile.getToughness() : 1 - profile.getToughness();
+            double keepChance = tough == 1 ? 1 - profile.getDropChance() : 1;
+            stayChance[tough] = 0;
+            for (int treasure = 0; treasure < treasureChances.length; treasure++) {
+                int found = treasure < 3 ? treasures | (1 << treasure) : treasures;
+                if (found == treasures) {
+                    stayChance[tough] += toughChance * treasureChances[treasure];
+                    continue;
+                }
+                double chance = toughChance * treasureChances[treasure];
+                stayChance[tough] += chance * (1 - keepChance);
+                if (found == ALL_TREASURES) {
+                    // the last treasure wins straight away, before anything else happens in town
+                    win += chance * keepChance;
+                    finalGold += chance * keepChance * gold;
+                    continue;
+                }
+                for (int terrain = 0; terrain < TERRAIN_ITEMS.length; terrain++) {
+                    addTown(terrain, tough, gold, kit, found, chance * keepChance * TERRAIN_CHANCES[terrain]);
+                    win += sum[0];
+                    finalGold += sum[1];
+                }
+            }
+        }
+        sum[0] = win;
+        sum[1] = finalGold;
+    }
+
+    /**
+     * Adds up the values of every way out of a town, weighted by their chances, into sum.
+     * Gold past the cap is worth what the cap is worth, plus the extra gold whenever the hunter wins.
+     */
+    private void addTown(int terrain, int tough, int gold, int kit, int treasures, double chance) {
+        Item needed = TERRAIN_ITEMS[terrain];
+        boolean shovel = (kit & Item.SHOVEL.getBit()) != 0;
+        boolean item = (kit & needed.getBit()) != 0;
+        Exits out = exits[terrain][tough][innerState(gold, shovel, item, false)];
+        double win = 0;
+        double finalGold = 0;
+        int otherItems = kit & ~(Item.SHOVEL.getBit() | needed.getBit());
+        for (int i = 0; i < out.size; i++) {
+            int exit = out.exits[i];
+            int exitKit = otherItems
+                    | ((exit & 1) != 0 ? Item.SHOVEL.getBit() : 0)
+                    | ((exit & 2) != 0 ? needed.getBit() : 0);
+            int exitGold = exit >> 2;
+            int s = state(Math.min(exitGold, goldCap), exitKit, treasures);
+            double over = Math.max(0, exitGold - goldCap);
+            win += out.chances[i] * winChance[s];
+            finalGold += out.chances[i] * (expectedGold[s] + over * winChance[s]);
+        }
+        // dying is worth nothing for both, so it needs no term
+        sum[0] = chance * win;
+        sum[1] = chance * finalGold;
+    }
+
+    private int state(int gold, int kit, int treasures) {
+        return (treasures * KITS + kit) * (goldCap + 1) + gold;
+    }
+
+    private int innerState(int gold, boolean shovel, boolean item, boolean dug) {
+        return gold * 8 + (shovel ? 1 : 0) + (item ? 2 : 0) + (dug ? 4 : 0);
+    }
+
+    /**
+     * The ways each gold and kit can move to another while keeping the same treasures, one row per state,
+     * as parallel arrays; row s runs from start[s] to start[s + 1]. extraGold is the chance times the gold
+     * over the cap.
+     */
+    private static class Rows {
+        private int[] start;
+        private int[] to;
+        private double[] chances;
+        private double[] extraGold;
+    }
+
+    /**
+     * The ways out of a town from one state, as parallel arrays.
+     * Each exit is gold * 4 + (shovel ? 1 : 0) + (item ? 2 : 0); dying is left out.
+     */
+    private static class Exits {
+        private int[] exits;
+        private double[] chances;
+        private int size;
+    }
+
+    /**
+     * Works out what happens inside one kind of town, after the treasure hunt.<p>
+     * The greedy hunter digs if they have a shovel, buys a shovel if they can afford one, leaves if they
+     * can, buys the item needed to leave if they can afford it, and otherwise looks for trouble.
+     * Everything but the brawling only moves forward, so it is followed directly; the brawling is a
+     * random walk on gold that is solved exactly as a small linear system.
+     */
+    private class TownSolver {
+        private final int cost;
+        private final double troubleChance;
+        private final int maxDugGold;
+        private final int maxBrawlGold;
+        // the most gold a hunter can hold inside the town: walking in with the cap, or brawling up to the
+        // dearest item, and then digging
+        private final int maxGold;
+        // memo of exit distributions, indexed by innerState(), each a dense vector over exits
+        private final double[][] memo;
+        // brawlWalk() results, indexed by target
+        private final double[][][] walks;
+
+        private TownSolver(int terrain, boolean tough) {
+            cost = terrainCosts[terrain];
+            troubleChance = profile.getTroubleChance(tough);
+            maxDugGold = profile.getMaxDugGold();
+            maxBrawlGold = profile.getMaxBrawlGold();
+            maxGold = Math.max(goldCap, Math.max(cost, shovelCost) + maxBrawlGold) + maxDugGold;
+            memo = new double[(maxGold + 1) * 8][];
+            walks = new double[Math.max(cost, shovelCost) + 1][][];
+        }
+
+        /**
+         * @return The exits from every state a hunter can walk into the town in.
+         */
+        private Exits[] solveEntries() {
+            Exits[] entries = new Exits[(goldCap + 1) * 8];
+            for (int gold = 0; gold <= goldCap; gold++) {
+                for (int kitBits = 0; kitBits < 4; kitBits++) {
+                    boolean shovel = (kitBits & 1) != 0;
+                    boolean item = (kitBits & 2) != 0;
+                    entries[innerState(gold, shovel, item, false)] = sparse(exitsFrom(gold, shovel, item, false));
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * @return The chance of leaving the town in each exit, starting from the given state.
+         */
+        private double[] exitsFrom(int gold, boolean shovel, boolean item, boolean dug) {
+            int key = innerState(gold, shovel, item, dug);
+            if (memo[key] != null) {
+                return memo[key];
+            }
+            double[] result = new double[(maxGold + 1) * 4];
+            if (!dug && shovel) {
+                double digChance = profile.getDigChance();
+                add(result, exitsFrom(gold, true, item, true), 1 - digChance);
+                for (int dugGold = 1; dugGold <= maxDugGold; dugGold++) {
+                    add(result, exitsFrom(gold + dugGold, true, item, true), digChance / maxDugGold);
+                }
+            } else if (!shovel && gold >= shovelCost) {
+                add(result, exitsFrom(gold - shovelCost, true, item, dug), 1);
+            } else if (item) {
+                int exit = gold * 4 + (shovel ? 1 : 0);
+                result[exit + 2] = 1 - profile.getItemBreakChance();
+                result[exit] = profile.getItemBreakChance();
+            } else if (gold >= cost) {
+                add(result, exitsFrom(gold - cost, shovel, true, dug), 1);
+            } else {
+                // brawl until the gold reaches the point where the hunter will buy something
+                int target = shovel ? cost : Math.min(shovelCost, cost);
+                double[][] walk = brawlWalk(target);
+                for (int reached = 0; reached < walk[gold].length; reached++) {
+                    if (walk[gold][reached] > 0) {
+                        add(result, exitsFrom(target + reached, shovel, item, dug), walk[gold][reached]);
+                    }
+                }
+            }
+            memo[key] = result;
+            return result;
+        }
+
+        /**
+         * Solves the brawling random walk: starting from each gold amount below the target, the chance of
+         * first reaching target + i gold (for i below the most gold a brawl can win) before losing a brawl without enough gold to pay.<p>
+         * Brawls where nothing happens don't change anything, so only the ones with a winner count:
+         * the hunter wins 1 to maxBrawlGold gold with chance (1 - c), or loses as much with chance c.
+         */
+        private double[][] brawlWalk(int target) {
+            if (walks[target] != null) {
+                return walks[target];
+            }
+            double winChance = 1 - troubleChance;
+            double loseChance = troubleChance;
+            int n = target;
+            // (I - Q) x = R, solved for every right hand side at once
+            double[][] a = new double[n][n + maxBrawlGold];
+            for (int gold = 0; gold < n; gold++) {
+                a[gold][gold] += 1;
+                for (int diff = 1; diff <= maxBrawlGold; diff++) {
+                    int up = gold + diff;
+                    if (up >= target) {
+                        a[gold][n + up - target] += winChance / maxBrawlGold;
+                    } else {
+                        a[gold][up] -= winChance / maxBrawlGold;
+                    }
+                    int down = gold - diff;
+                    if (down >= 0) {
+                        a[gold][down] -= loseChance / maxBrawlGold;
+                    }
+                }
+            }
+            // Gauss-Jordan elimination; the matrix is diagonally dominant so no pivoting is needed
+            for (int col = 0; col < n; col++) {
+                double pivot = a[col][col];
+                for (int j = 0; j < a[col].length; j++) {
+                    a[col][j] /= pivot;
+                }
+                for (int row = 0; row < n; row++) {
+                    if (row != col && a[row][col] != 0) {
+                        double factor = a[row][col];
+                        for (int j = 0; j < a[row].length; j++) {
+                            a[row][j] -= factor * a[col][j];
+                        }
+                    }
+                }
+            }
+            double[][] walk = new double[n][];
+            for (int gold = 0; gold < n; gold++) {
+                walk[gold] = Arrays.copyOfRange(a[gold], n, n + maxBrawlGold);
+            }
+            walks[target] = walk;
+            return walk;
+        }
+
+        private void add(double[] result, double[] exits, double chance) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] += exits[i] * chance;
+            }
+        }
+
+        private Exits sparse(double[] dense) {
+            Exits out = new Exits();
+            out.exits = new int[dense.length];
+            out.chances = new double[dense.length];
+            for (int i = 0; i < dense.length; i++) {
+                if (dense[i] > 0) {
+                    out.exits[out.size] = i;
+                    out.chances[out.size] = dense[i];
+                    out.size++;
+                }
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Usage: MarkovEngine [difficulty] [goldCap]
+     */
+    public static void main(String[] args) {
+        String difficulty = args.length > 0 ? args[0].toLowerCase() : "n";
+        int goldCap = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GOLD_CAP;
+        long start = System.nanoTime();
+        MarkovEngine engine = new MarkovEngine(difficulty, goldCap);
+        double win = engine.getWinChance();
+        double gold = engine.getExpectedGold();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Difficulty " + difficulty + ", gold cap " + goldCap + ", " + engine.getSweeps()
+                + " sweeps, " + millis + " ms");
+        System.out.printf("win chance %.6f, expected gold %.4f%n", win, gold);
+    }
+}
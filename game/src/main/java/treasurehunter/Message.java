@@ -0,0 +1,183 @@
+package treasurehunter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every line of text Town and Shop report when something happens, as a code plus one int argument.<p>
+ * The game hands a Message and its argument to OutputSink.addMessage() instead of building the text itself,
+ * so a sink that shows nothing (NullOutput) never builds any text at all, and a Town keeps its latest news
+ * as a Message and only turns it into text when getLatestNews() is called.<p>
+ * A message's text can hold these placeholders, filled in by render():
+ * <ul>
+ * <li>{n}: the argument, as a number,</li>
+ * <li>{item}: the name of the Item whose ordinal is the argument,</li>
+ * <li>{treasure}: the name of the Treasure whose ordinal is the argument,</li>
+ * <li>{name}, {terrain} and {needed}: the town's hunter, terrain and the item needed to cross it,
+ * only in the town's news.</li>
+ * </ul>
+ * Each text is split into its pieces once, when the class is loaded.
+ */
+
+public enum Message {
+    // the latest news of a town
+    NO_NEWS("", TextColor.BLACK),
+    WELCOME_TOUGH("Welcome to town, {name}.\nIt's pretty rough around here, so watch yourself.", TextColor.BLACK),
+    WELCOME_CALM("Welcome to town, {name}.\nWe're just a sleepy little town with mild mannered folk.", TextColor.BLACK),
+    CROSSED("You used your {needed} to cross the {terrain}.", TextColor.BLACK),
+    CROSSED_AND_BROKE("You used your {needed} to cross the {terrain}.\nUnfortunately, you lost your {needed}.", TextColor.BLACK),
+    CANT_LEAVE("You can't leave town, {name}. You don't have a {needed}.", TextColor.BLACK),
+    LEFT_SHOP("You left the shop", TextColor.BLACK),
+    NO_BRAWL("A brawl has not occurred.", TextColor.BLACK),
+    WON_BRAWL("You recently won a brawl.", TextColor.BLACK),
+    LOST_BRAWL("You recently lost a brawl.", TextColor.BLACK),
+    DROPPED_TREASURE("You dropped the treasure.", TextColor.BLACK),
+    OBTAINED_TREASURE("You recently obtained some treasure.", TextColor.BLACK),
+    NO_TREASURE("You did not find treasure in this town.", TextColor.BLACK),
+    DUG_GOLD("You recently dug up some gold.", TextColor.BLACK),
+    DUG_DIRT("You recently dug up some dirt.", TextColor.BLACK),
+    BUY_SHOVEL("Buy a shovel.", TextColor.BLACK),
+
+    // looking for trouble
+    NO_TROUBLE("\nYou couldn't find any trouble", TextColor.BLUE),
+    SWORD_SCARES("\nThat's a mighty fine sword there, just take some gold; I'm not in the mood for a brawl.", TextColor.BLUE),
+    BRAWL_STARTS("\nYou want trouble, stranger!  You got it!\nOof! Umph! Ow!", TextColor.RED),
+    BRAWL_WON("\nOkay, stranger! You proved yer mettle. Here, take my gold.", TextColor.GREEN),
+    BRAWL_LOST("\nThat'll teach you to go lookin' fer trouble in MY town! Now pay up!", TextColor.RED),
+    RECEIVE_GOLD("\nYou won the brawl and receive ", TextColor.GREEN),
+    PAY_GOLD("\nYou lost the brawl and pay ", TextColor.RED),
+    GOLD_AMOUNT("{n} gold.", TextColor.ORANGE),
+
+    // hunting for treasure
+    FOUND_A("\nYou found a ", TextColor.BLACK),
+    FOUND_TREASURE("{treasure}.\n", TextColor.ORANGE),
+    DROPPED("\nHowever, you accidentally drop the {treasure} before putting it in your bag.", TextColor.RED),
+    ALREADY_HAVE("\nYou already have a ", TextColor.BLACK),
+    TREASURE_NAME("{treasure}", TextColor.ORANGE),
+    PUT_IT_BACK(", so you put it back.", TextColor.BLACK),
+    ALREADY_SEARCHED("\nYou have already searched this town.", TextColor.RED),
+
+    // digging for gold
+    DUG_UP("\nYou dug up {n} gold!", TextColor.ORANGE),
+    ONLY_DIRT("\nYou dug but only found dirt", TextColor.RED),
+    NO_SHOVEL("\nYou can't dig for gold without a shovel.", TextColor.RED),
+    ALREADY_DUG("\nYou already dug for gold in this town.", TextColor.RED),
+
+    // the shop
+    TAKE_ITEM("\nYou take the {item}.\n", TextColor.BLACK),
+    ALREADY_OWN("\nYou already own one of those, so you dispose of it in the nearest waste receptacle.", TextColor.BLACK),
+    GOT_YERSELF("Ye' got yerself a ", TextColor.BLACK),
+    ITEM_NAME("{item}", TextColor.MAGENTA),
+    COME_AGAIN(". Come again soon.", TextColor.BLACK),
+    CANT_BUY("\nHmm, either you don't have enough gold or you've already got one of those!", TextColor.BLACK),
+    SOLD("\nPleasure doin' business with you.", TextColor.BLACK),
+    CANT_SELL("\nStop stringin' me along!", TextColor.RED);
+
+    // constants
+    private static final String[] PLACEHOLDERS = {"{n}", "{item}", "{treasure}", "{name}", "{terrain}", "{needed}"};
+    private static final int NUMBER = 0;
+    private static final int ITEM = 1;
+    private static final int TREASURE = 2;
+    private static final int NAME = 3;
+    private static final int TERRAIN = 4;
+    private static final int NEEDED = 5;
+
+    static {
+        for (Message message : values()) {
+            message.compile();
+        }
+    }
+
+    // instance variables
+    private final String text;
+    private final TextColor color;
+    // the text split at its placeholders: literal text, then the placeholder that follows it (or -1)
+    private String[] literals;
+    private int[] placeholders;
+
+    Message(String text, TextColor color) {
+        this.text = text;
+        this.color = color;
+    }
+
+    /**
+     * Splits the text at its placeholders.
+     */
+    private void compile() {
+        List<String> literalList = new ArrayList<>();
+        List<Integer> placeholderList = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int next = -1;
+            int kind = -1;
+            for (int i = 0; i < PLACEHOLDERS.length; i++) {
+                int at = text.indexOf(PLACEHOLDERS[i], from);
+                if (at >= 0 && (next < 0 || at < next)) {
+                    next = at;
+                    kind = i;
+                }
+            }
+            if (next < 0) {
+                literalList.add(text.substring(from));
+                placeholderList.add(-1);
+                break;
+            }
+            literalList.add(text.substring(from, next));
+            placeholderList.add(kind);
+            from = next + PLACEHOLDERS[kind].length();
+        }
+        literals = literalList.toArray(new String[0]);
+        placeholders = new int[placeholderList.size()];
+        for (int i = 0; i < placeholders.length; i++) {
+            placeholders[i] = placeholderList.get(i);
+        }
+    }
+
+    public TextColor getColor() {
+        return color;
+    }
+
+    /**
+     * @return true if the message has no placeholders, so its text is always the same.
+     */
+    public boolean isFixed() {
+        return literals.length == 1;
+    }
+
+    /**
+     * Turns the message into text.
+     *
+     * @param arg The message's argument, or anything if it has none.
+     * @param town The town whose hunter and terrain fill in {name}, {terrain} and {needed};
+     *             may be null for messages without them.
+     * @return The text.
+     */
+    public String render(int arg, Town town) {
+        if (isFixed()) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < literals.length; i++) {
+            result.append(literals[i]);
+            int placeholder = placeholders[i];
+            if (placeholder == NUMBER) {
+                result.append(arg);
+            } else if (placeholder == ITEM) {
+                result.append(Item.values()[arg].getName());
+            } else if (placeholder == TREASURE) {
+                result.append(Treasure.values()[arg].getName());
+            } else if (placeholder == NAME) {
+                result.append(town.getHunter().getHunterName());
+            } else if (placeholder == TERRAIN) {
+                result.append(town.getTerrain().getTerrainName());
+            } else if (placeholder == NEEDED) {
+                result.append(town.getTerrain().getNeededItem());
+            }
+        }
+        return result.toString();
+    }
+
+    public String render(int arg) {
+        return render(arg, null);
+    }
+}
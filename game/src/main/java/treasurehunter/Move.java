@@ -0,0 +1,29 @@
+package treasurehunter;
+
+/**
+ * The Move enum lists the moves a hunter can make from the main menu, for bots and the PolicyTable.<p>
+ * Buying and selling also need an Item to say what is bought or sold.
+ */
+
+public enum Move {
+    HUNT("h"),
+    DIG("d"),
+    MOVE_ON("m"),
+    LOOK_FOR_TROUBLE("l"),
+    BUY("b"),
+    SELL("s");
+
+    // instance variables
+    private final String command;
+
+    Move(String command) {
+        this.command = command;
+    }
+
+    /**
+     * @return The letter typed at the main menu to make this move.
+     */
+    public String getCommand() {
+        return command;
+    }
+}
@@ -0,0 +1,28 @@
+package treasurehunter;
+
+/**
+ * An OutputSink that throws all text away.<p>
+ * Used by simulations, which only care about what happens and never show it, so messages are
+ * never even turned into text.
+ * It holds no state, so one instance can be shared by every thread.
+ */
+
+public class NullOutput implements OutputSink {
+    public static final NullOutput INSTANCE = new NullOutput();
+
+    private NullOutput() {
+    }
+
+    public void addTextToWindow(String text, TextColor color) {
+    }
+
+    public void addMessage(Message message, int arg) {
+        // the text is never built
+    }
+
+    public void clear() {
+    }
+
+    public void flush() {
+    }
+}
@@ -0,0 +1,43 @@
+package treasurehunter;
+
+/**
+ * Somewhere the game's text can be shown.<p>
+ * Town, Shop and TreasureHunter only ever talk to an OutputSink, so the same game can be shown in a
+ * Swing window (OutputWindow), on a terminal (TerminalOutput), or nowhere at all (NullOutput).
+ */
+
+public interface OutputSink {
+
+    /**
+     * Adds text to the output. It may not show up until flush() is called.
+     *
+     * @param text The text to add.
+     * @param color The color of the text.
+     */
+    void addTextToWindow(String text, TextColor color);
+
+    /**
+     * Adds a message to the output, in the message's color. The text is only built here, so a sink that
+     * shows nothing can skip building it.
+     *
+     * @param message What happened.
+     * @param arg The message's argument, see Message.render().
+     */
+    default void addMessage(Message message, int arg) {
+        addTextToWindow(message.render(arg), message.getColor());
+    }
+
+    default void addMessage(Message message) {
+        addMessage(message, 0);
+    }
+
+    /**
+     * Clears everything shown so far.
+     */
+    void clear();
+
+    /**
+     * Shows everything added since the last flush. Called whenever the game is about to wait for the player.
+     */
+    void flush();
+}
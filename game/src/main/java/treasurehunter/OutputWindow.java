@@ -0,0 +1,238 @@
+package treasurehunter;
+
+import java.awt.Color;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.JFrame;
+import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyleContext;
+import javax.swing.text.StyledDocument;
+
+/**
+ * The OutputWindow shows the game's text in a Swing window.<p>
+ * The game thread never touches Swing. Text and clears go into a RenderQueue, a lock-free ring shared with
+ * the event dispatch thread, and flush() publishes them. The event dispatch thread drains the ring at most
+ * once a frame (FRAME_NANOS), so everything the game flushed in between is drawn as one update and one
+ * repaint. A long burst of lines, like the death narrative, never makes the game wait for Swing's layout.<p>
+ * Every TextColor gets its own ready-made, immutable set of text attributes, with the java.awt.Color it is
+ * drawn in, so inserting text never has to change a style.<p>
+ * A batch that starts with a clear is written into a new, empty document, which is then swapped in with a
+ * single setDocument(), so the old text is never removed while it is on screen. The old document is left to
+ * the garbage collector: emptying it for reuse, with remove(), costs more than making a new one, since every
+ * removal builds change events and undo records for the text taken out. The window only keeps the last
+ * MAX_CHARS characters: when a long session goes past that, the oldest lines are cut off in one go, down to
+ * TRIM_TO. So memory stays capped, and clearing and redrawing cost the same however long the game has been
+ * running.
+ */
+
+public class OutputWindow implements OutputSink {
+    // constants
+    private static final int FONT_SIZE = 25;
+    // the most text the window keeps; more than this and the oldest lines are cut off
+    public static final int MAX_CHARS = 64 * 1024;
+    // how much is left after cutting, so cutting happens once every MAX_CHARS - TRIM_TO characters
+    public static final int TRIM_TO = 48 * 1024;
+    // how far past the cut to look for the end of a line
+    private static final int LINE_SEARCH = 1024;
+    // 60 frames a second
+    public static final long FRAME_NANOS = 1_000_000_000L / 60;
+    // what each of the game's colors is drawn in
+    private static final Map<TextColor, Color> AWT_COLORS = new EnumMap<>(TextColor.class);
+
+    static {
+        AWT_COLORS.put(TextColor.BLACK, Color.black);
+        AWT_COLORS.put(TextColor.BLUE, Color.blue);
+        AWT_COLORS.put(TextColor.GREEN, Color.green);
+        AWT_COLORS.put(TextColor.ORANGE, Color.orange);
+        AWT_COLORS.put(TextColor.RED, Color.red);
+        AWT_COLORS.put(TextColor.MAGENTA, Color.magenta);
+        AWT_COLORS.put(TextColor.YELLOW, Color.yellow);
+    }
+
+    // instance variables
+    private final RenderQueue queue;
+    // true from when a drain is asked for until it starts
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final long frameNanos;
+    // everything below is only used on the event dispatch thread once the window is built
+    // the document on screen
+    private StyledDocument doc;
+    private JTextPane textPane;
+    private final Map<TextColor, AttributeSet> styles = new EnumMap<>(TextColor.class);
+    // the document the text being drained goes into
+    private StyledDocument target;
+    private final DocumentWriter writer = new DocumentWriter();
+    private final Timer frameTimer;
+    private long lastDrain;
+
+    /**
+     * Creates an OutputWindow that writes into a document without putting it on screen.
+     * Used by the benchmarks to measure rendering without a JFrame.
+     *
+     * @param doc The document to write the game's text into.
+     * @param frameNanos The least time between two drains; 0 to drain as soon as the event dispatch thread can.
+     */
+    public OutputWindow(StyledDocument doc, long frameNanos) {
+        this.doc = doc;
+        this.frameNanos = frameNanos;
+        queue = new RenderQueue(RenderQueue.DEFAULT_CAPACITY, this::requestDrain);
+        frameTimer = new Timer(0, e -> drain());
+        frameTimer.setRepeats(false);
+        lastDrain = System.nanoTime() - frameNanos;
+        for (TextColor color : TextColor.values()) {
+            styleFor(color); // build the style for each color up front
+        }
+    }
+
+    public OutputWindow(StyledDocument doc) {
+        this(doc, 0);
+    }
+
+    public OutputWindow() {
+        frameNanos = FRAME_NANOS;
+        queue = new RenderQueue(RenderQueue.DEFAULT_CAPACITY, this::requestDrain);
+        frameTimer = new Timer(0, e -> drain());
+        frameTimer.setRepeats(false);
+        lastDrain = System.nanoTime() - frameNanos;
+        JFrame frame = new JFrame("Test");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // causes program to end when window is X'd out
+        frame.setSize(500, 400); // window size
+        frame.setLocation(300, 50); // where on screen window appears
+        textPane = new JTextPane(); // panel that can handle custom text
+        textPane.setEditable(false); // prevents user from typing into window
+        doc = textPane.getStyledDocument(); // call getter method for panel's style doc
+        for (TextColor color : TextColor.values()) {
+            styleFor(color); // build the style for each color up front
+        }
+        frame.add(textPane); // add the panel to the frame
+        frame.setVisible(true); // display the frame on screen
+    }
+
+    /**
+     * Adds text to the current batch. Nothing shows up until flush() is called.
+     *
+     * @param text The text to add.
+     * @param color The color of the text.
+     */
+    public void addTextToWindow(String text, TextColor color) {
+        queue.add(text, color);
+    }
+
+    /**
+     * Clears the window. Anything added since the last flush() is thrown away too.
+     */
+    public void clear() {
+        queue.clear();
+    }
+
+    /**
+     * Publishes the current batch to the event dispatch thread, which draws it by the next frame.
+     * Should be called whenever the game is about to wait for the player.
+     */
+    public void flush() {
+        queue.publish();
+    }
+
+    /**
+     * Asks the event dispatch thread for a drain, unless one is already on its way. Runs on the game thread.
+     */
+    private void requestDrain() {
+        if (!drainScheduled.getAndSet(true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    /**
+     * Applies everything published since the last drain to the document, as one update. Only ever runs on the
+     * event dispatch thread. If the last drain was less than a frame ago, it waits for the frame timer instead.
+     */
+    private void drain() {
+        long now = System.nanoTime();
+        long wait = lastDrain + frameNanos - now;
+        if (frameNanos > 0 && wait > 0) {
+            frameTimer.setInitialDelay((int) ((wait + 999_999) / 1_000_000));
+            frameTimer.restart();
+            return;
+        }
+        // cleared before reading the queue, so anything published from here on asks for another drain
+        drainScheduled.set(false);
+        lastDrain = now;
+        target = doc;
+        queue.drain(writer);
+        try {
+            if (target != doc) {
+                doc = target;
+                if (textPane != null) {
+                    textPane.setDocument(doc); // one swap "resets" the panel
+                }
+            }
+            trim();
+        } catch (BadLocationException e) { }
+    }
+
+    /**
+     * Cuts the oldest text off the document on screen once it is longer than MAX_CHARS, at the end of a line
+     * if there is one close by.
+     */
+    private void trim() throws BadLocationException {
+        int length = doc.getLength();
+        if (length <= MAX_CHARS) {
+            return;
+        }
+        int cut = length - TRIM_TO;
+        String after = doc.getText(cut, Math.min(LINE_SEARCH, length - cut));
+        int lineEnd = after.indexOf('\n');
+        if (lineEnd >= 0) {
+            cut += lineEnd + 1;
+        }
+        doc.remove(0, cut);
+    }
+
+    /**
+     * @return The document on screen. Only use it on the event dispatch thread.
+     */
+    public StyledDocument getDocument() {
+        return doc;
+    }
+
+    /**
+     * Looks up the attributes for a color, building them the first time the color is seen.
+     *
+     * @param color The text color.
+     * @return An immutable attribute set with the game's font size and the color.
+     */
+    private AttributeSet styleFor(TextColor color) {
+        AttributeSet attributes = styles.get(color);
+        if (attributes == null) {
+            StyleContext context = StyleContext.getDefaultStyleContext();
+            attributes = context.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.FontSize, FONT_SIZE);
+            attributes = context.addAttribute(attributes, StyleConstants.Foreground, AWT_COLORS.get(color));
+            styles.put(color, attributes);
+        }
+        return attributes;
+    }
+
+    /**
+     * Writes what the queue hands over into the target document.
+     */
+    private class DocumentWriter implements RenderQueue.Reader {
+        public void clear() {
+            // after a clear the text goes into a new document, off screen until the drain is done
+            target = new DefaultStyledDocument();
+        }
+
+        public void append(String text, TextColor color) {
+            try {
+                target.insertString(target.getLength(), text, styleFor(color)); // insert text at end the panel
+            } catch (BadLocationException e) { }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The ParameterSweep plays a batch of games for every point of a grid (or a random sample) of difficulty
+ * settings, to help balance the economy and the odds.<p>
+ * A point is a DifficultyProfile with some settings changed through with(), so any setting in
+ * difficulty.properties can be swept: markdown, toughness, item costs, trouble, dig and drop chances, and so on.
+ * Every point plays the same seeds, so two points differ only because of their settings.<p>
+ * Every point is one task on a ForkJoinPool, and each point's games run on a parallel stream inside that task,
+ * so they are split up in the same pool. A worker that runs out of work steals games from a point that is still
+ * running, so a few slow points at the end don't leave cores idle. Each point's row is written to the CSV as
+ * soon as the point is done, in the order they finish.
+ */
+
+public class ParameterSweep {
+    // constants
+    public static final int DEFAULT_GAMES = 10_000;
+    public static final int DEFAULT_MAX_TURNS = 500;
+
+    // instance variables
+    private final DifficultyProfile base;
+    private final List<Range> ranges;
+    private final int games;
+    private final int maxTurns;
+    private final long seed;
+
+    /**
+     * @param base The difficulty every point starts from.
+     * @param ranges The settings to vary, and over what values.
+     * @param games How many games to play at each point.
+     * @param maxTurns The most turns one game may last.
+     * @param seed The seed of the first game at each point; game i is played with seed + i.
+     */
+    public ParameterSweep(DifficultyProfile base, List<Range> ranges, int games, int maxTurns, long seed) {
+        this.base = base;
+        this.ranges = List.copyOf(ranges);
+        this.games = games;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes every combination of the ranges' values, the last range changing fastest.
+     *
+     * @return The points of the grid.
+     * @throws IllegalArgumentException if a value is out of range for its setting.
+     */
+    public List<DifficultyProfile> grid() {
+        List<DifficultyProfile> points = new ArrayList<>();
+        points.add(base);
+        for (Range range : ranges) {
+            List<DifficultyProfile> next = new ArrayList<>(points.size() * range.steps);
+            for (DifficultyProfile point : points) {
+                for (int step = 0; step < range.steps; step++) {
+                    next.add(point.with(range.setting, range.valueAt(step)));
+                }
+            }
+            points = next;
+        }
+        return points;
+    }
+
+    /**
+     * Makes points with every setting picked at random from its range, which covers many settings with far
+     * fewer points than a grid.
+     *
+     * @param count How many points to make.
+     * @param designSeed The seed for picking the values.
+     * @return The points.
+     * @throws IllegalArgumentException if a value is out of range for its setting.
+     */
+    public List<DifficultyProfile> random(int count, long designSeed) {
+        GameRandom random = new GameRandom(designSeed);
+        List<DifficultyProfile> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DifficultyProfile point = base;
+            for (Range range : ranges) {
+                point = point.with(range.setting, range.valueAt(random.nextDouble()));
+            }
+            points.add(point);
+        }
+        return points;
+    }
+
+    /**
+     * Plays every point and writes one CSV row per point as soon as it is done, after a header row.
+     *
+     * @param points The points to play, from grid() or random().
+     * @param pool Where to play them.
+     * @param out Where to write the CSV; it is flushed after every row, but not closed.
+     * @throws IOException if writing fails.
+     */
+    public void run(List<DifficultyProfile> points, ForkJoinPool pool, Writer out) throws IOException {
+        ExecutorCompletionService<String> done = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < points.size(); i++) {
+            int point = i;
+            DifficultyProfile profile = points.get(i);
+            done.submit(() -> {
+                long start = System.nanoTime();
+                SimulationStats stats = BatchSimulator.run(profile, games, maxTurns, seed, (Leaderboard) null);
+                return row(point, profile, stats, (System.nanoTime() - start) / 1_000_000);
+            });
+        }
+        out.write(header());
+        out.flush();
+        for (int i = 0; i < points.size(); i++) {
+            try {
+                out.write(done.take().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the sweep", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A sweep point failed", e.getCause());
+            }
+            out.flush();
+        }
+    }
+
+    private String header() {
+        StringBuilder line = new StringBuilder("point");
+        for (Range range : ranges) {
+            line.append(',').append(range.setting);
+        }
+        line.append(",games,wins,deaths,winRate,avgGold,avgTurns,avgTowns,millis\n");
+        return line.toString();
+    }
+
+    private String row(int point, DifficultyProfile profile, SimulationStats stats, long millis) {
+        StringBuilder line = new StringBuilder().append(point);
+        for (Range range : ranges) {
+            line.append(',').append(profile.getSetting(range.setting));
+        }
+        line.append(',').append(stats.getGames())
+                .append(',').append(stats.getWins())
+                .append(',').append(stats.getDeaths())
+                .append(String.format(Locale.ROOT, ",%.4f,%.2f,%.2f,%.2f", stats.getWinRate(),
+                        stats.getAverageGold(), stats.getAverageTurns(), stats.getAverageTowns()))
+                .append(',').append(millis)
+                .append('\n');
+        return line.toString();
+    }
+
+    /**
+     * One setting to sweep and the values to give it: steps values evenly spaced from min to max, both
+     * included. A range written with whole numbers only ever gives whole numbers.
+     */
+    public static class Range {
+        // instance variables
+        private final String setting;
+        private final double min;
+        private final double max;
+        private final int steps;
+        private final boolean whole;
+
+        /**
+         * @param setting One of DifficultyProfile.SETTINGS.
+         * @param min The smallest value.
+         * @param max The biggest value.
+         * @param steps How many values a grid gives it.
+         * @param whole true to round every value to a whole number.
+         */
+        public Range(String setting, double min, double max, int steps, boolean whole) {
+            if (!DifficultyProfile.SETTINGS.contains(setting)) {
+                throw new IllegalArgumentException("Unknown setting " + setting);
+            }
+            if (steps < 1) {
+                throw new IllegalArgumentException("A range needs at least one step");
+            }
+            this.setting = setting;
+            this.min = min;
+            this.max = max;
+            this.steps = steps;
+            this.whole = whole;
+        }
+
+        /**
+         * Reads a range written as setting=min:max:steps, e.g. "markdown=0.25:1:4" or "cost.shovel=4:12:5".
+         * A single value, as in "toughness=0.5", is a range of one step.
+         *
+         * @param text The range.
+         * @return The range.
+         * @throws IllegalArgumentException if the text is not a range.
+         */
+        public static Range parse(String text) {
+            int equals = text.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected setting=min:max:steps, not " + text);
+            }
+            String[] parts = text.substring(equals + 1).split(":");
+            if (parts.length != 1 && parts.length != 3) {
+                throw new IllegalArgumentException("Expected setting=min:max:steps, not " + text);
+            }
+            String setting = text.substring(0, equals);
+            double min = Double.parseDouble(parts[0]);
+            if (parts.length == 1) {
+                return new Range(setting, min, min, 1, !parts[0].contains("."));
+            }
+            boolean whole = !parts[0].contains(".") && !parts[1].contains(".");
+            return new Range(setting, min, Double.parseDouble(parts[1]), Integer.parseInt(parts[2]), whole);
+        }
+
+        public String getSetting() {
+            return setting;
+        }
+
+        private double valueAt(int step) {
+            return valueAt(steps == 1 ? 0 : (double) step / (steps - 1));
+        }
+
+        /**
+         * @param fraction How far from min to max, from 0 to 1.
+         */
+        private double valueAt(double fraction) {
+            double value = min + (max - min) * fraction;
+            // rounded so the CSV shows 0.3 rather than 0.30000000000000004
+            return whole ? Math.round(value) : Math.round(value * 1e9) / 1e9;
+        }
+    }
+
+    /**
+     * Usage: ParameterSweep [-difficulty key] [-difficulties file] [-games n] [-maxTurns n] [-seed n]
+     * [-random points] [-threads n] [-out file.csv] setting=min:max:steps ...<p>
+     * Sweeps a grid of every range given, or with -random that many points picked at random from the ranges
+     * (the steps are then ignored). Without -out the CSV goes to System.out.
+     */
+    public static void main(String[] args) throws IOException {
+        String difficulty = DifficultyProfile.DEFAULT_KEY;
+        int games = DEFAULT_GAMES;
+        int maxTurns = DEFAULT_MAX_TURNS;
+        long seed = System.nanoTime();
+        int randomPoints = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outPath = null;
+        Path profilesPath = null;
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-difficulty")) {
+                difficulty = args[++i].toLowerCase();
+            } else if (args[i].equals("-difficulties")) {
+                profilesPath = Path.of(args[++i]);
+            } else if (args[i].equals("-games")) {
+                games = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-maxTurns")) {
+                maxTurns = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-random")) {
+                randomPoints = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-out")) {
+                outPath = Path.of(args[++i]);
+            } else {
+                ranges.add(Range.parse(args[i]));
+            }
+        }
+        DifficultyProfile base;
+        if (profilesPath != null) {
+            base = DifficultyProfile.load(profilesPath).get(difficulty);
+            if (base == null) {
+                throw new IllegalArgumentException(profilesPath + " has no difficulty " + difficulty);
+            }
+        } else {
+            base = DifficultyProfile.forKey(difficulty);
+        }
+
+        ParameterSweep sweep = new ParameterSweep(base, ranges, games, maxTurns, seed);
+        List<DifficultyProfile> points = randomPoints > 0 ? sweep.random(randomPoints, seed) : sweep.grid();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            if (outPath == null) {
+                Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+                sweep.run(points, pool, out);
+            } else {
+                try (Writer out = Files.newBufferedWriter(outPath, StandardCharsets.UTF_8)) {
+                    sweep.run(points, pool, out);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.err.println(points.size() + " points of " + games + " games on " + base.infoString() + ", seed "
+                + seed + ", " + millis + " ms");
+    }
+}
@@ -0,0 +1,76 @@
+package treasurehunter;
+
+/**
+ * Where the player's typed lines come from.<p>
+ * Every line is read through here, so when a game is being journaled each line the player typed
+ * (menu choices, shop items, yes/no answers) ends up in the ActionJournal in the order it was read.
+ * A line longer than MAX_LINE_BYTES of UTF-8 is cut to fit, at a whole character, before the game or the
+ * journal sees it, so the journal always holds exactly the line the game used.
+ */
+
+public class PlayerInput {
+    // constants
+    public static final int MAX_LINE_BYTES = 1024;
+
+    // instance variables
+    private final CommandSource source;
+    private ActionJournal journal;
+    private long waitNanos;
+
+    /**
+     * @param source Where the lines come from, e.g. System.in, a script file, a socket or a list in memory.
+     */
+    public PlayerInput(CommandSource source) {
+        this.source = source;
+        journal = null;
+    }
+
+    public void setJournal(ActionJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return The total time spent waiting for lines so far, so GameMetrics can leave it out of its timings.
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /**
+     * Reads the player's next line.
+     *
+     * @return The line in lowercase, cut to MAX_LINE_BYTES.
+     * @throws java.util.NoSuchElementException if there is no more input.
+     */
+    public String nextLine() {
+        long start = System.nanoTime();
+        String line = cap(source.nextLine().toLowerCase());
+        waitNanos += System.nanoTime() - start;
+        if (journal != null) {
+            journal.recordInput(line);
+        }
+        return line;
+    }
+
+    /**
+     * Cuts a line to the most whole characters that fit in MAX_LINE_BYTES of UTF-8.
+     */
+    static String cap(String line) {
+        // a char is at most 3 bytes of UTF-8 (a pair of surrogates is 4), so short lines can't be too long
+        if (line.length() * 3 <= MAX_LINE_BYTES) {
+            return line;
+        }
+        int bytes = 0;
+        int end = 0;
+        while (end < line.length()) {
+            int codePoint = line.codePointAt(end);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes + size > MAX_LINE_BYTES) {
+                return line.substring(0, end);
+            }
+            bytes += size;
+            end += Character.charCount(codePoint);
+        }
+        return line;
+    }
+}
@@ -0,0 +1,277 @@
+package treasurehunter;
+
+import java.util.stream.IntStream;
+
+/**
+ * The PolicySolver works out the best move for every state a hunter can be in, to give them the biggest
+ * chance of winning.<p>
+ * A state is the hunter's gold, kit and treasures plus the town they are in (its terrain, whether it is
+ * tough, and whether it has been dug). Every state gets its value kept in one big array, which works as a
+ * transposition table: however the hunter got to a state, its value is only worked out once.<p>
+ * The game has loops (a brawl can leave the gold where it was, items can be bought and sold back), so
+ * instead of searching a tree to a fixed depth the values are swept until they stop changing, taking the
+ * best move everywhere (expectimax over the whole state space). Each sweep is split by kind of town and run
+ * on the common fork-join pool, so it uses every core. Treasures are never lost, so the sets of treasures
+ * are solved one at a time from fullest to emptiest, like MarkovEngine does.<p>
+ * Two moves are always made as soon as possible: hunting as soon as the hunter walks into town, and digging
+ * as soon as they have a shovel, since both cost nothing and more gold or treasure never hurts.
+ * A win one turn sooner is worth very slightly more, so the solver never picks moves that go round in circles.
+ */
+
+public class PolicySolver {
+    // constants
+    public static final int DEFAULT_GOLD_CAP = 60;
+    private static final double TOLERANCE = 1e-8;
+    private static final double DISCOUNT = 1 - 1e-6;
+    private static final int TERRAINS = MarkovEngine.TERRAIN_ITEMS.length;
+    private static final int SHOP_ITEMS = 7; // every Item but the sword
+    private static final Item[] ITEMS = Item.values();
+
+    // instance variables
+    private final int goldCap;
+    private final DifficultyProfile profile;
+    private final double[] treasureChances; // crown, trophy, gem, dust
+    private final int startingGold;
+    private final int startingKit;
+    private final int[] buyPrices;
+    private final int[] sellPrices;
+    // the chance of winning from every state, indexed by PolicyTable.index()
+    private double[] values;
+    // entries[treasures][kit * (goldCap + 1) + gold], the chance of winning when walking into a new town
+    private double[][] entries;
+    private byte[] moves;
+    private PolicyTable policy;
+    private int sweeps;
+
+    /**
+     * Sets up the solver for a difficulty.
+     *
+     * @param profile The difficulty, which may be a variant no player can pick.
+     * @param goldCap The most gold tracked; more than this counts as this much.
+     */
+    public PolicySolver(DifficultyProfile profile, int goldCap) {
+        this.goldCap = goldCap;
+        this.profile = profile;
+        double treasureChance = profile.getTreasureChance();
+        treasureChances = new double[] {treasureChance, treasureChance, treasureChance, 1 - 3 * treasureChance};
+        startingGold = Math.min(profile.getStartingGold(), goldCap);
+        startingKit = profile.getStartingKit() & (MarkovEngine.KITS - 1);
+        PriceTable prices = profile.getPriceTable();
+        buyPrices = new int[SHOP_ITEMS];
+        sellPrices = new int[SHOP_ITEMS];
+        for (int i = 0; i < SHOP_ITEMS; i++) {
+            buyPrices[i] = prices.getBuyPrice(ITEMS[i]);
+            sellPrices[i] = prices.getSellPrice(ITEMS[i]);
+        }
+    }
+
+    /**
+     * @param difficulty "e", "n" or "h", or any other bundled difficulty.
+     * @param goldCap The most gold tracked; more than this counts as this much.
+     */
+    public PolicySolver(String difficulty, int goldCap) {
+        this(DifficultyProfile.forKey(difficulty), goldCap);
+    }
+
+    public PolicySolver(String difficulty) {
+        this(difficulty, DEFAULT_GOLD_CAP);
+    }
+
+    /**
+     * Works out the best move for every state, once.
+     *
+     * @return The best moves, ready to be looked up during play.
+     */
+    public PolicyTable solve() {
+        if (policy != null) {
+            return policy;
+        }
+        values = new double[PolicyTable.size(goldCap)];
+        moves = new byte[values.length];
+        entries = new double[MarkovEngine.TREASURE_SETS][MarkovEngine.KITS * (goldCap + 1)];
+        sweeps = 0;
+        // the three treasures are equally likely, so sets missing as many treasures are worth the same
+        int[] solvedByMissing = {-1, -1, -1, -1};
+        int levelSize = values.length / MarkovEngine.TREASURE_SETS;
+        for (int treasures = MarkovEngine.ALL_TREASURES - 1; treasures >= 0; treasures--) {
+            int level = treasures;
+            int missing = Integer.bitCount(MarkovEngine.ALL_TREASURES & ~treasures);
+            int solved = solvedByMissing[missing];
+            if (solved >= 0) {
+                System.arraycopy(values, solved * levelSize, values, level * levelSize, levelSize);
+                System.arraycopy(moves, solved * levelSize, moves, level * levelSize, levelSize);
+                System.arraycopy(entries[solved], 0, entries[level], 0, entries[level].length);
+                continue;
+            }
+            solvedByMissing[missing] = level;
+            double change = 1;
+            while (change > TOLERANCE) {
+                updateEntries(level);
+                change = IntStream.range(0, TERRAINS * 2)
+                        .parallel()
+                        .mapToDouble(town -> sweepTown(level, town / 2, town % 2))
+                        .max()
+                        .orElse(0);
+                sweeps++;
+            }
+            updateEntries(level);
+        }
+        policy = new PolicyTable(goldCap, moves);
+        return policy;
+    }
+
+    /**
+     * @return The chance a new hunter wins the game when every move comes from the policy.
+     */
+    public double getWinChance() {
+        solve();
+        return entries[0][startingKit * (goldCap + 1) + startingGold];
+    }
+
+    public int getSweeps() {
+        return sweeps;
+    }
+
+    /**
+     * Works out the chance of winning when walking into a new town with each gold and kit, including the
+     * treasure hunt that happens first.
+     */
+    private void updateEntries(int treasures) {
+        double[] entry = entries[treasures];
+        for (int kit = 0; kit < MarkovEngine.KITS; kit++) {
+            for (int gold = 0; gold <= goldCap; gold++) {
+                double win = 0;
+                for (int tough = 0; tough < 2; tough++) {
+                    double toughChance = tough == 1 ? profile.getToughness() : 1 - profile.getToughness();
+                    double keepChance = tough == 1 ? 1 - profile.getDropChance() : 1;
+                    for (int terrain = 0; terrain < TERRAINS; terrain++) {
+                        double townChance = toughChance * MarkovEngine.TERRAIN_CHANCES[terrain];
+                        double stay = values[PolicyTable.index(goldCap, treasures, terrain, tough, 0, kit, gold)];
+                        for (int treasure = 0; treasure < treasureChances.length; treasure++) {
+                            double chance = townChance * treasureChances[treasure];
+                            int found = treasure < 3 ? treasures | (1 << treasure) : treasures;
+                            if (found == treasures) {
+                                win += chance * stay;
+                            } else {
+                                double kept = found == MarkovEngine.ALL_TREASURES
+                                        ? 1
+                                        : values[PolicyTable.index(goldCap, found, terrain, tough, 0, kit, gold)];
+                                win += chance * (keepChance * kept + (1 - keepChance) * stay);
+                            }
+                        }
+                    }
+                }
+                entry[kit * (goldCap + 1) + gold] = DISCOUNT * win;
+            }
+        }
+    }
+
+    /**
+     * Sweeps every state in one kind of town once, picking the best move for each.
+     *
+     * @return The biggest change in any value.
+     */
+    private double sweepTown(int treasures, int terrain, int tough) {
+        double[] entry = entries[treasures];
+        Item needed = MarkovEngine.TERRAIN_ITEMS[terrain];
+        double troubleChance = profile.getTroubleChance(tough == 1);
+        int maxBrawlGold = profile.getMaxBrawlGold();
+        double brawlWin = troubleChance * (1 - troubleChance) / maxBrawlGold;
+        double brawlLose = troubleChance * troubleChance / maxBrawlGold;
+        double digChance = profile.getDigChance();
+        int maxDugGold = profile.getMaxDugGold();
+        double breakChance = profile.getItemBreakChance();
+        // a look for trouble that finds none leaves everything as it was, so it is divided out
+        double troubleScale = DISCOUNT / (1 - DISCOUNT * (1 - troubleChance));
+        double change = 0;
+        // a dug town only leads to other dug states, so do those first
+        for (int dug = 1; dug >= 0; dug--) {
+            for (int kit = 0; kit < MarkovEngine.KITS; kit++) {
+                int base = PolicyTable.index(goldCap, treasures, terrain, tough, dug, kit, 0);
+                boolean shovel = (kit & Item.SHOVEL.getBit()) != 0;
+                for (int gold = goldCap; gold >= 0; gold--) {
+                    double best;
+                    int move;
+                    if (shovel && dug == 0) {
+                        int dugBase = PolicyTable.index(goldCap, treasures, terrain, tough, 1, kit, 0);
+                        double dugValue = (1 - digChance) * values[dugBase + gold];
+                        for (int dugGold = 1; dugGold <= maxDugGold; dugGold++) {
+                            dugValue += digChance / maxDugGold
+                                    * values[dugBase + Math.min(gold + dugGold, goldCap)];
+                        }
+                        best = DISCOUNT * dugValue;
+                        move = Move.DIG.ordinal() << 3;
+                    } else {
+                        // look for trouble is always possible, so it is the one to beat
+                        double trouble = 0;
+                        for (int diff = 1; diff <= maxBrawlGold; diff++) {
+                            trouble += brawlWin * values[base + Math.min(gold + diff, goldCap)];
+                            if (gold >= diff) {
+                                trouble += brawlLose * values[base + gold - diff];
+                            }
+                        }
+                        best = troubleScale * trouble;
+                        move = Move.LOOK_FOR_TROUBLE.ordinal() << 3;
+                        if ((kit & needed.getBit()) != 0) {
+                            double leave = entry[kit * (goldCap + 1) + gold];
+                            int broken = (kit & ~needed.getBit()) * (goldCap + 1) + gold;
+                            leave = (1 - breakChance) * leave + breakChance * entry[broken];
+                            if (DISCOUNT * leave > best) {
+                                best = DISCOUNT * leave;
+                                move = Move.MOVE_ON.ordinal() << 3;
+                            }
+                        }
+                        for (int item = 0; item < SHOP_ITEMS; item++) {
+                            int bit = ITEMS[item].getBit();
+                            double value;
+                            if ((kit & bit) == 0) {
+                                if (gold < buyPrices[item]) {
+                                    continue;
+                                }
+                                int to = PolicyTable.index(goldCap, treasures, terrain, tough, dug, kit | bit, gold - buyPrices[item]);
+                                value = DISCOUNT * values[to];
+                                if (value > best) {
+                                    best = value;
+                                    move = Move.BUY.ordinal() << 3 | item;
+                                }
+                            } else if (sellPrices[item] > 0) {
+                                int to = PolicyTable.index(goldCap, treasures, terrain, tough, dug, kit & ~bit,
+                                        Math.min(gold + sellPrices[item], goldCap));
+                                value = DISCOUNT * values[to];
+                                if (value > best) {
+                                    best = value;
+                                    move = Move.SELL.ordinal() << 3 | item;
+                                }
+                            }
+                        }
+                    }
+                    change = Math.max(change, Math.abs(best - values[base + gold]));
+                    values[base + gold] = best;
+                    moves[base + gold] = (byte) move;
+                }
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Usage: PolicySolver [difficulty] [games] [goldCap]<p>
+     * Solves the policy, then plays games with it and with the greedy strategy to compare them.
+     */
+    public static void main(String[] args) {
+        String difficulty = args.length > 0 ? args[0].toLowerCase() : "n";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int goldCap = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GOLD_CAP;
+
+        long start = System.nanoTime();
+        PolicySolver solver = new PolicySolver(difficulty, goldCap);
+        PolicyTable policy = solver.solve();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Difficulty " + difficulty + ", gold cap " + goldCap + ", " + solver.getSweeps()
+                + " sweeps, " + millis + " ms");
+        System.out.printf("best win chance %.6f%n", solver.getWinChance());
+
+        System.out.println("Policy: " + BatchSimulator.run(difficulty, games, 100_000, 1, policy).infoString());
+        System.out.println("Greedy: " + BatchSimulator.run(difficulty, games, 100_000, 1).infoString());
+    }
+}
@@ -0,0 +1,80 @@
+package treasurehunter;
+
+/**
+ * The PolicyTable holds the best move for every state a hunter can be in, as worked out by PolicySolver.<p>
+ * A lookup is one array read, so a bot can ask for its next move every turn without slowing the game down.
+ * Gold above the cap is looked up as the cap, and the sword is ignored since the solver never buys one.
+ */
+
+public class PolicyTable {
+    // constants
+    private static final int TERRAINS = MarkovEngine.TERRAIN_ITEMS.length;
+    private static final Move[] MOVES = Move.values();
+    private static final Item[] ITEMS = Item.values();
+
+    // instance variables
+    private final int goldCap;
+    // one byte per state, move.ordinal() << 3 | item.ordinal()
+    private final byte[] moves;
+
+    PolicyTable(int goldCap, byte[] moves) {
+        this.goldCap = goldCap;
+        this.moves = moves;
+    }
+
+    public int getGoldCap() {
+        return goldCap;
+    }
+
+    /**
+     * Looks up the best move for a hunter in a town.
+     *
+     * @param hunter The hunter making the move.
+     * @param town The town the hunter is in.
+     * @return The move to make.
+     */
+    public Move getMove(Hunter hunter, Town town) {
+        if (!town.isSearched()) {
+            // hunting costs nothing and can only help, so it always comes first
+            return Move.HUNT;
+        }
+        return MOVES[moves[lookup(hunter, town)] >> 3];
+    }
+
+    /**
+     * Looks up what to buy or sell when getMove() says to buy or sell.
+     *
+     * @param hunter The hunter making the move.
+     * @param town The town the hunter is in.
+     * @return The item to buy or sell.
+     */
+    public Item getItem(Hunter hunter, Town town) {
+        return ITEMS[moves[lookup(hunter, town)] & 7];
+    }
+
+    private int lookup(Hunter hunter, Town town) {
+        Item needed = town.getTerrain().getItem();
+        int terrain = 0;
+        while (MarkovEngine.TERRAIN_ITEMS[terrain] != needed) {
+            terrain++;
+        }
+        int treasures = hunter.getTreasures() & MarkovEngine.ALL_TREASURES;
+        int kit = hunter.getKit() & (MarkovEngine.KITS - 1);
+        return index(goldCap, treasures, terrain, town.isToughTown() ? 1 : 0, town.isDug() ? 1 : 0, kit,
+                Math.min(hunter.getGold(), goldCap));
+    }
+
+    /**
+     * @return The number of states in a table with the given gold cap.
+     */
+    static int size(int goldCap) {
+        return MarkovEngine.TREASURE_SETS * TERRAINS * 2 * 2 * MarkovEngine.KITS * (goldCap + 1);
+    }
+
+    /**
+     * @return Where a state is kept, in both the table and PolicySolver's values.
+     */
+    static int index(int goldCap, int treasures, int terrain, int tough, int dug, int kit, int gold) {
+        return ((((treasures * TERRAINS + terrain) * 2 + tough) * 2 + dug) * MarkovEngine.KITS + kit) * (goldCap + 1) + gold;
+    }
+}
@@ -0,0 +1,94 @@
+package treasurehunter;
+
+/**
+ * The PriceTable class holds the buy and sell price of every Item for one markdown value.<p>
+ * All prices are worked out once when the table is built, so looking one up is just an array read.
+ * A PriceTable never changes after it is built, so one table, built by a DifficultyProfile, is shared
+ * by every Shop of that difficulty.
+ */
+
+public class PriceTable {
+    // instance variables
+    private final double markdown;
+    private final int[] buyPrices;
+    private final int[] sellPrices;
+    private final String inventory;
+    private final String samuraiInventory;
+
+    /**
+     * Builds the table.
+     *
+     * @param baseCosts The cost of each Item, indexed by Item.ordinal().
+     * @param markdown Percentage of the cost paid back when selling an item, in decimal format.
+     */
+    public PriceTable(int[] baseCosts, double markdown) {
+        this.markdown = markdown;
+        buyPrices = new int[Item.values().length];
+        sellPrices = new int[Item.values().length];
+        for (Item item : Item.values()) {
+            int cost = baseCosts[item.ordinal()];
+            buyPrices[item.ordinal()] = cost;
+            sellPrices[item.ordinal()] = (int) (cost * markdown);
+        }
+
+        // the shop's price list never changes, so it is only built once
+        StringBuilder list = new StringBuilder();
+        for (Item item : Item.values()) {
+            if (item != Item.SWORD) {
+                appendPrice(list, item);
+            }
+        }
+        inventory = list.toString();
+        appendPrice(list, Item.SWORD);
+        samuraiInventory = list.toString();
+    }
+
+    public double getMarkdown() {
+        return markdown;
+    }
+
+    /**
+     * @param item The item in question.
+     * @return The cost of buying the item.
+     */
+    public int getBuyPrice(Item item) {
+        return buyPrices[item.ordinal()];
+    }
+
+    /**
+     * @param item The item in question.
+     * @return The gold paid for selling the item, with the markdown applied.
+     */
+    public int getSellPrice(Item item) {
+        return sellPrices[item.ordinal()];
+    }
+
+    /**
+     * @param withSword true if the sword should be listed, which only happens for a secret samurai.
+     * @return The shop's list of items and their prices, one per line.
+     */
+    public String getInventory(boolean withSword) {
+        return withSword ? samuraiInventory : inventory;
+    }
+
+    private void appendPrice(StringBuilder list, Item item) {
+        String name = item.getName();
+        list.append(Character.toUpperCase(name.charAt(0))).append(name, 1, name.length())
+                .append(": ").append(buyPrices[item.ordinal()]).append(" gold\n");
+    }
+
+    /**
+     * Looks up a price from the name the player typed in.
+     *
+     * @param item The lowercase item name.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return The price, or 0 if there is no such item.
+     */
+    public int getPrice(String item, boolean isBuying) {
+        Item shopItem = Item.fromName(item);
+        if (shopItem == null) {
+            return 0;
+        }
+        return isBuying ? buyPrices[shopItem.ordinal()] : sellPrices[shopItem.ordinal()];
+    }
+}
@@ -0,0 +1,52 @@
+package treasurehunter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the player's lines from a stream: System.in, a socket, or a script file with one command per line.<p>
+ * Lines are read through one BufferedReader, which does no pattern matching, so a piped script of
+ * thousands of commands is read about as fast as it can be copied.
+ */
+
+public class ReaderCommandSource implements CommandSource {
+    // instance variables
+    private final BufferedReader reader;
+
+    /**
+     * @param in The stream to read, as UTF-8.
+     */
+    public ReaderCommandSource(InputStream in) {
+        reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a script file, one command per line.
+     *
+     * @param script The file to read.
+     * @throws IOException if the file can't be opened.
+     */
+    public ReaderCommandSource(Path script) throws IOException {
+        reader = Files.newBufferedReader(script, StandardCharsets.UTF_8);
+    }
+
+    public String nextLine() {
+        String line;
+        try {
+            line = reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (line == null) {
+            throw new NoSuchElementException("No more input");
+        }
+        return line;
+    }
+}
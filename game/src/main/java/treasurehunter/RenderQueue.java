@@ -0,0 +1,174 @@
+package treasurehunter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A RenderQueue carries the game's text from the game thread to the thread that draws it, without locks.<p>
+ * It is a ring of slots made once, up front: each slot holds one event, either a run of text in one color or
+ * a clear. Exactly one thread (the game) adds events and exactly one thread (the event dispatch thread) drains
+ * them. Each side only ever writes its own counter: the game moves the tail, the drawing thread moves the head.
+ * So a handoff is one ordered write and one ordered read, and neither side ever waits for the other unless
+ * the ring is full.<p>
+ * Events added by the game stay invisible to the drawing thread until publish() is called, so a half-built
+ * screen is never drawn. drain() hands over everything published since the last drain in one go: it skips
+ * straight to the last clear, since anything before that would be wiped anyway, and joins runs that are next to
+ * each other and the same color. However many times the game published in between, the reader sees one batch.
+ */
+
+public class RenderQueue {
+    // constants
+    public static final int DEFAULT_CAPACITY = 4096;
+    // how long the game waits between looks when the ring is full
+    private static final long FULL_WAIT_NANOS = 100_000;
+
+    // instance variables
+    private final int mask;
+    private final String[] texts;
+    private final TextColor[] colors;
+    private final boolean[] clears;
+    private final Runnable onPublish;
+    // published events are those before tail; drained events are those before head
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    // only used by the game thread
+    private long written;
+    private long published;
+    private long knownHead;
+    // only used by the drawing thread
+    private final StringBuilder run = new StringBuilder();
+
+    /**
+     * @param capacity How many events the ring holds; a power of two.
+     * @param onPublish Run on the game thread after every publish(), e.g. to ask for a drain.
+     */
+    public RenderQueue(int capacity, Runnable onPublish) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity " + capacity + " is not a power of two");
+        }
+        mask = capacity - 1;
+        texts = new String[capacity];
+        colors = new TextColor[capacity];
+        clears = new boolean[capacity];
+        this.onPublish = onPublish;
+    }
+
+    /**
+     * Adds a run of text. Only called by the game thread.
+     *
+     * @param text The text.
+     * @param color Its color.
+     */
+    public void add(String text, TextColor color) {
+        int slot = claim();
+        texts[slot] = text;
+        colors[slot] = color;
+        clears[slot] = false;
+        written++;
+    }
+
+    /**
+     * Adds a clear, throwing away everything added since the last publish(). Only called by the game thread.
+     */
+    public void clear() {
+        for (long i = published; i < written; i++) {
+            texts[(int) i & mask] = null;
+        }
+        written = published;
+        int slot = claim();
+        texts[slot] = null;
+        colors[slot] = null;
+        clears[slot] = true;
+        written++;
+    }
+
+    /**
+     * Hands everything added so far to the drawing thread. Only called by the game thread.
+     */
+    public void publish() {
+        if (written == published) {
+            return;
+        }
+        published = written;
+        tail.setRelease(published);
+        onPublish.run();
+    }
+
+    /**
+     * Finds a free slot for the next event. When the ring is full the events added so far are published and
+     * the game waits for the drawing thread to catch up; that only happens if it has fallen a whole ring behind.
+     */
+    private int claim() {
+        if (written - knownHead > mask) {
+            knownHead = head.getAcquire();
+            while (written - knownHead > mask) {
+                publish();
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+                knownHead = head.getAcquire();
+            }
+        }
+        return (int) written & mask;
+    }
+
+    /**
+     * @return true if something has been published and not drained yet.
+     */
+    public boolean hasPublished() {
+        return tail.getAcquire() != head.get();
+    }
+
+    /**
+     * Hands every published event to a reader as one batch. Only called by the drawing thread.
+     *
+     * @param reader Where the events go: at most one clear, first, then the runs of text in order.
+     * @return How many events were drained.
+     */
+    public int drain(Reader reader) {
+        long start = head.get();
+        long end = tail.getAcquire();
+        long from = start;
+        for (long i = end - 1; i >= start; i--) {
+            if (clears[(int) i & mask]) {
+                reader.clear();
+                from = i + 1;
+                break;
+            }
+        }
+        TextColor runColor = null;
+        for (long i = from; i < end; i++) {
+            int slot = (int) i & mask;
+            if (runColor != null && colors[slot] != runColor) {
+                reader.append(run.toString(), runColor);
+                run.setLength(0);
+            }
+            run.append(texts[slot]);
+            runColor = colors[slot];
+        }
+        if (runColor != null) {
+            reader.append(run.toString(), runColor);
+            run.setLength(0);
+        }
+        // let the strings go before handing the slots back
+        for (long i = start; i < end; i++) {
+            texts[(int) i & mask] = null;
+        }
+        head.setRelease(end);
+        return (int) (end - start);
+    }
+
+    /**
+     * What drain() hands the events to.
+     */
+    public interface Reader {
+        /**
+         * Everything shown so far is to be thrown away; the text that follows starts a new screen.
+         */
+        void clear();
+
+        /**
+         * @param text A run of text, all one color.
+         * @param color Its color.
+         */
+        void append(String text, TextColor color);
+    }
+}
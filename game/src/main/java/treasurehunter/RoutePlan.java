@@ -0,0 +1,69 @@
+package treasurehunter;
+
+/**
+ * The cheapest way to get from one town of a WorldMap to another, as worked out by a RoutePlanner:
+ * which items to buy before setting off, and what they cost.
+ */
+
+public class RoutePlan {
+    // instance variables
+    private final int from;
+    private final int to;
+    private final int itemsToBuy;
+    private final int cost;
+    private final int crossings;
+
+    /**
+     * @param from The town the hunter starts in.
+     * @param to The town the hunter wants to get to.
+     * @param itemsToBuy The terrain items to buy, as a kit bitmask.
+     * @param cost The gold they cost.
+     * @param crossings Every terrain item the hunter will have once they are bought, see WorldMap.crossingsFor().
+     */
+    public RoutePlan(int from, int to, int itemsToBuy, int cost, int crossings) {
+        this.from = from;
+        this.to = to;
+        this.itemsToBuy = itemsToBuy;
+        this.cost = cost;
+        this.crossings = crossings;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * @return The items to buy, as a kit bitmask like Hunter.getKit().
+     */
+    public int getItemsToBuy() {
+        return itemsToBuy;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @return The terrain items the route may use, to hand to RoutePlanner.findRoute().
+     */
+    public int getCrossings() {
+        return crossings;
+    }
+
+    public String infoString() {
+        StringBuilder items = new StringBuilder();
+        for (Item item : Item.values()) {
+            if ((itemsToBuy & item.getBit()) != 0) {
+                items.append(items.length() == 0 ? "" : ", ").append(item.getName());
+            }
+        }
+        if (items.length() == 0) {
+            return "From town " + from + " to town " + to + " with what you have";
+        }
+        return "From town " + from + " to town " + to + " after buying " + items + " for " + cost + " gold";
+    }
+}
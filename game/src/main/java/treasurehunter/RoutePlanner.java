@@ -0,0 +1,261 @@
+package treasurehunter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The RoutePlanner finds the cheapest way across a WorldMap for a hunter with a given kit and purse.<p>
+ * Items are never used up on the map, so a route costs the items the hunter has to buy before setting off,
+ * and the cheapest route is the one that needs the cheapest set of missing items. There are only 64 sets of
+ * terrain items, so for each set the planner works out once which pieces the world falls into when only those
+ * terrains can be crossed, with one pass over every road. That table is kept, keyed by the set's bitmask,
+ * and built the first time a plan needs it (or all at once by prepareAll()).<p>
+ * After that, plan() never looks at the map: it tries the sets of missing items cheapest first and stops at
+ * the first one that puts both towns in the same piece, at most 64 array reads, however many towns the world
+ * has. findRoute() then finds the towns along the way, with the fewest roads, in one search of the map.<p>
+ * Every shop sells every item at the same price, so the items can always be bought in the town the hunter
+ * starts from. The planner does not allow for items breaking on the way.
+ * A planner keeps scratch space for its searches, so each thread should use its own.
+ */
+
+public class RoutePlanner {
+    // constants
+    private static final int SETS = WorldMap.CROSSING_SETS;
+
+    // instance variables
+    private final WorldMap map;
+    // what it costs to buy every item in a set, by set
+    private final int[] setCosts;
+    // every set, cheapest first, and fewest items first between sets that cost the same
+    private final int[] setsByCost;
+    // for each set, which piece of the world each town is in; null until a plan needs it
+    private final int[][] pieces;
+    // scratch space for findRoute(); a town was reached in the current search if its mark is the search's number
+    private final int[] cameFrom;
+    private final int[] marks;
+    private final int[] queue;
+    private int search;
+
+    /**
+     * @param map The world to plan across.
+     * @param prices What each item costs.
+     */
+    public RoutePlanner(WorldMap map, PriceTable prices) {
+        this.map = map;
+        setCosts = new int[SETS];
+        Integer[] sets = new Integer[SETS];
+        for (int set = 0; set < SETS; set++) {
+            for (Item item : Item.values()) {
+                if ((set & item.getBit()) != 0) {
+                    setCosts[set] += prices.getBuyPrice(item);
+                }
+            }
+            sets[set] = set;
+        }
+        Arrays.sort(sets, (a, b) -> setCosts[a] != setCosts[b]
+                ? Integer.compare(setCosts[a], setCosts[b]) : Integer.compare(Integer.bitCount(a), Integer.bitCount(b)));
+        setsByCost = new int[SETS];
+        for (int i = 0; i < SETS; i++) {
+            setsByCost[i] = sets[i];
+        }
+        pieces = new int[SETS][];
+        int towns = map.getTownCount();
+        cameFrom = new int[towns];
+        marks = new int[towns];
+        queue = new int[towns];
+    }
+
+    /**
+     * Creates a planner with the prices of the map's difficulty.
+     */
+    public RoutePlanner(WorldMap map) {
+        this(map, map.getProfile().getPriceTable());
+    }
+
+    /**
+     * Works out the cheapest way from one town to another.
+     *
+     * @param from The town the hunter is in.
+     * @param to The town the hunter wants to get to.
+     * @param kit The hunter's kit, as returned by Hunter.getKit().
+     * @param gold The gold the hunter can spend.
+     * @return The plan, or null if the hunter can't afford any way there.
+     */
+    public RoutePlan plan(int from, int to, int kit, int gold) {
+        int have = WorldMap.crossingsFor(kit);
+        for (int toBuy : setsByCost) {
+            if (setCosts[toBuy] > gold) {
+                return null;
+            }
+            if ((toBuy & have) != 0) {
+                continue;
+            }
+            int[] piece = piecesFor(have | toBuy);
+            if (piece[from] == piece[to]) {
+                return new RoutePlan(from, to, toBuy, setCosts[toBuy], have | toBuy);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Works out the cheapest way for a hunter to get from one town to another.
+     *
+     * @param hunter The hunter, whose kit and gold are used.
+     * @param from The town the hunter is in.
+     * @param to The town the hunter wants to get to.
+     * @return The plan, or null if the hunter can't afford any way there.
+     */
+    public RoutePlan plan(Hunter hunter, int from, int to) {
+        return plan(from, to, hunter.getKit(), hunter.getGold());
+    }
+
+    /**
+     * Finds the way from one town to another that crosses the fewest roads using only the given terrain items.
+     *
+     * @param from The town to start from.
+     * @param to The town to get to.
+     * @param crossings The terrain items the route may use, e.g. RoutePlan.getCrossings().
+     * @return Every town on the way, from first to last, or null if there is no way.
+     */
+    public int[] findRoute(int from, int to, int crossings) {
+        int[] piece = pieces[crossings];
+        if (piece != null && piece[from] != piece[to]) {
+            return null;
+        }
+        search++;
+        marks[from] = search;
+        queue[0] = from;
+        int head = 0;
+        int tail = 1;
+        while (head < tail && marks[to] != search) {
+            int town = queue[head++];
+            for (int road = 0; road < map.getRoadCount(town); road++) {
+                int next = map.getNeighbour(town, road);
+                if (marks[next] != search && map.canTravel(town, road, crossings)) {
+                    marks[next] = search;
+                    cameFrom[next] = town;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (marks[to] != search) {
+            return null;
+        }
+        int length = 1;
+        for (int town = to; town != from; town = cameFrom[town]) {
+            length++;
+        }
+        int[] route = new int[length];
+        for (int town = to; length > 0; town = cameFrom[town]) {
+            route[--length] = town;
+        }
+        return route;
+    }
+
+    /**
+     * Builds the table for every set of terrain items now, so no plan has to wait for one.
+     */
+    public void prepareAll() {
+        for (int set = 0; set < SETS; set++) {
+            piecesFor(set);
+        }
+    }
+
+    /**
+     * Labels the pieces the world falls into when only the given terrains can be crossed, or looks them up if
+     * that has been done before.
+     */
+    private int[] piecesFor(int crossings) {
+        int[] piece = pieces[crossings];
+        if (piece != null) {
+            return piece;
+        }
+        int towns = map.getTownCount();
+        piece = new int[towns];
+        Arrays.fill(piece, -1);
+        int label = 0;
+        for (int start = 0; start < towns; start++) {
+            if (piece[start] >= 0) {
+                continue;
+            }
+            piece[start] = label;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int town = queue[head++];
+                for (int road = 0; road < map.getRoadCount(town); road++) {
+                    int next = map.getNeighbour(town, road);
+                    if (piece[next] < 0 && map.canTravel(town, road, crossings)) {
+                        piece[next] = label;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            label++;
+        }
+        pieces[crossings] = piece;
+        return piece;
+    }
+
+    /**
+     * Usage: RoutePlanner [-towns n] [-roads n] [-seed n] [-difficulty key] [-queries n]<p>
+     * Builds a world, prepares the planner, and times that many plans between random towns with random kits.
+     */
+    public static void main(String[] args) {
+        int townCount = 100_000;
+        int roadsPerTown = WorldMap.DEFAULT_ROADS_PER_TOWN;
+        long seed = System.nanoTime();
+        String difficulty = DifficultyProfile.DEFAULT_KEY;
+        int queries = 1_000_000;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-towns")) {
+                townCount = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-roads")) {
+                roadsPerTown = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-difficulty")) {
+                difficulty = args[++i].toLowerCase();
+            } else if (args[i].equals("-queries")) {
+                queries = Integer.parseInt(args[++i]);
+            }
+        }
+        DifficultyProfile profile = DifficultyProfile.forKey(difficulty);
+        GameRandom random = new GameRandom(seed);
+
+        long start = System.nanoTime();
+        WorldMap map = new WorldMap(profile, NullOutput.INSTANCE, townCount, roadsPerTown, random);
+        long built = System.nanoTime();
+        RoutePlanner planner = new RoutePlanner(map);
+        planner.prepareAll();
+        long prepared = System.nanoTime();
+        int found = 0;
+        RoutePlan sample = null;
+        for (int i = 0; i < queries; i++) {
+            RoutePlan plan = planner.plan(random.nextInt(townCount), random.nextInt(townCount),
+                    random.nextInt(WorldMap.CROSSING_SETS), random.nextInt(60));
+            if (plan != null) {
+                found++;
+                sample = plan;
+            }
+        }
+        long planned = System.nanoTime();
+
+        System.out.println(townCount + " towns on " + profile.infoString() + ", seed " + seed);
+        System.out.println("map built in " + (built - start) / 1_000_000 + " ms, planner prepared in "
+                + (prepared - built) / 1_000_000 + " ms");
+        System.out.println(queries + " plans, " + found + " affordable, "
+                + (planned - prepared) / Math.max(1, queries) + " ns each");
+        if (sample != null) {
+            int[] route = planner.findRoute(sample.getFrom(), sample.getTo(), sample.getCrossings());
+            List<String> steps = new ArrayList<>();
+            for (int town : route) {
+                steps.add(String.valueOf(town));
+            }
+            System.out.println(sample.infoString() + ": " + String.join(" -> ", steps));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package treasurehunter;
+
+/**
+ * The Shop class controls the cost of the items in the Treasure Hunt game. <p>
+ * The Shop class also acts as a go between for the Hunter's buyItem() method. <p>
+ * A Shop remembers nothing about who is shopping: the hunter, and where to print and read the hunter's
+ * answers, are handed to every call, and the prices never change. So one shop can serve any number of hunters
+ * at once, from any number of threads, without locks; the hunter's gold and kit change in one atomic step
+ * (see Hunter).<p>
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Shop {
+    // instance variables
+    private final PriceTable prices;
+
+    /**
+     * The Shop constructor takes in its difficulty.
+     * The prices come from the difficulty, so every shop of the same difficulty shares one PriceTable.
+     *
+     * @param profile The difficulty, with the item costs and the markdown for selling items.
+     */
+    public Shop(DifficultyProfile profile) {
+        prices = profile.getPriceTable();
+    }
+
+    /**
+     * Method for entering the shop.
+     *
+     * @param hunter the Hunter entering the shop
+     * @param buyOrSell String that determines if hunter is "B"uying or "S"elling
+     * @param input Where the hunter's answers are read from
+     * @param window The window to print to
+     * @return the town's latest news
+     */
+
+    public Message enter(Hunter hunter, String buyOrSell, PlayerInput input, OutputSink window) {
+        if (buyOrSell.equals("b")) {
+            window.clear();
+            window.addTextToWindow("\nWelcome to the shop! We have the finest wares in town.", TextColor.BLACK);
+            window.addTextToWindow("\nCurrently we have the following items:\n", TextColor.BLACK);
+            window.addTextToWindow(inventory(hunter), TextColor.BLACK);
+            window.addTextToWindow("What're you lookin' to buy? ", TextColor.BLACK);
+            window.flush();
+            String item = input.nextLine();
+            int cost = checkMarketPrice(item, true);
+            if ((cost == 0 && !item.equals("sword")) || (!hunter.isSecretSamurai() && item.equals("sword"))) {
+                window.addTextToWindow("\nWe ain't got none of those.", TextColor.BLACK);
+            } else {
+                if (hunter.hasItemInKit(Item.SWORD)) {
+                    window.addTextToWindow("\nThe shopkeeper is going to hand you the item freely because of the sharpness of your steel.", TextColor.BLUE);
+                    buyItem(hunter, item, window);
+                } else {
+                    window.addTextToWindow("\nIt'll cost you ", TextColor.BLACK);
+                    window.addTextToWindow("" + cost + " gold", TextColor.ORANGE);
+                    window.addTextToWindow(", Buy? (y/n)\n", TextColor.BLACK);
+                    window.flush();
+                    String option = input.nextLine();
+                    if (option.equals("y")) {
+                        buyItem(hunter, item, window);
+                    }
+                    window.clear();
+                }
+            }
+        } else {
+            window.clear();
+            window.addTextToWindow("\nWhat're you lookin' to sell? ", TextColor.BLACK);
+            window.addTextToWindow("You currently have the following items: " + hunter.getInventory(), TextColor.MAGENTA);
+            window.flush();
+            String item = input.nextLine();
+            int cost = checkMarketPrice(item, false);
+            if (cost == 0) {
+                window.addTextToWindow("\nWe don't want none of those.", TextColor.RED);
+            } else {
+                window.addTextToWindow("It'll get you " + cost + " gold. Sell it (y/n)? ", TextColor.BLACK);
+                window.flush();
+                String option = input.nextLine();
+                if (option.equals("y")) {
+                    sellItem(hunter, item, window);
+                }
+            }
+        }
+        return Message.LEFT_SHOP;
+    }
+
+    /**
+     * Buys an item for a hunter without any prompts or messages, used by the Simulation.
+     *
+     * @param hunter the Hunter doing the buying
+     * @param item the item being bought
+     * @return true if the item is now in the hunter's kit
+     */
+    public boolean buy(Hunter hunter, String item) {
+        int cost = checkMarketPrice(item, true);
+        if ((cost == 0 && !item.equals("sword")) || (!hunter.isSecretSamurai() && item.equals("sword"))) {
+            return false;
+        }
+        return buyItem(hunter, item, NullOutput.INSTANCE);
+    }
+
+    /**
+     * Sells an item for a hunter without any prompts or messages, used by the Simulation.
+     *
+     * @param hunter the Hunter doing the selling
+     * @param item the item being sold
+     * @return true if the item was sold
+     */
+    public boolean sell(Hunter hunter, String item) {
+        return sellItem(hunter, item, NullOutput.INSTANCE);
+    }
+
+    /**
+     * A method that returns a string showing the items available in the shop
+     * (all shops sell the same items).
+     *
+     * @param hunter The hunter looking; only a secret samurai is shown the sword.
+     * @return the string representing the shop's items available for purchase and their prices.
+     */
+    public String inventory(Hunter hunter) {
+        return prices.getInventory(hunter.isSecretSamurai());
+    }
+
+    /**
+     * A method that lets a Hunter buy an item.
+     *
+     * @param hunter The hunter doing the buying.
+     * @param item The item being bought.
+     * @param window The window to print to.
+     * @return true if the item was bought.
+     */
+    public boolean buyItem(Hunter hunter, String item, OutputSink window) {
+        int costOfItem = checkMarketPrice(item, true);
+        if (hunter.hasItemInKit(Item.SWORD)) {
+            if (hunter.buyItem(item, 0)) {
+                window.addMessage(Message.TAKE_ITEM, Item.fromName(item).ordinal());
+                return true;
+            } else {
+                window.addMessage(Message.ALREADY_OWN);
+            }
+
+        } else {
+            if (hunter.buyItem(item, costOfItem)) {
+                window.addMessage(Message.GOT_YERSELF);
+                window.addMessage(Message.ITEM_NAME, Item.fromName(item).ordinal());
+                window.addMessage(Message.COME_AGAIN);
+                return true;
+            } else {
+                window.addMessage(Message.CANT_BUY);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A pathway method that lets the Hunter sell an item.
+     *
+     * @param hunter The hunter doing the selling.
+     * @param item The item being sold.
+     * @param window The window to print to.
+     * @return true if the item was sold.
+     */
+    public boolean sellItem(Hunter hunter, String item, OutputSink window) {
+        int buyBackPrice = checkMarketPrice(item, false);
+        if (hunter.sellItem(item, buyBackPrice)) {
+            window.addMessage(Message.SOLD);
+            return true;
+        }
+        window.addMessage(Message.CANT_SELL);
+        return false;
+    }
+
+    /**
+     * Determines and returns the cost of buying or selling an item.
+     *
+     * @param item The item in question.
+     * @param isBuying Whether the item is being bought or sold.
+     * @return The cost of buying or selling the item based on the isBuying parameter.
+     */
+    public int checkMarketPrice(String item, boolean isBuying) {
+        return prices.getPrice(item, isBuying);
+    }
+
+    /**
+     * Checks the item entered against the price table.
+     *
+     * @param item The item being checked for cost.
+     * @return The cost of the item or 0 if the item is not found.
+     */
+    public int getCostOfItem(String item) {
+        return prices.getPrice(item, true);
+    }
+
+    /**
+     * Checks the cost of an item with the markdown applied.
+     *
+     * @param item The item being sold.
+     * @return The sell price of the item.
+     */
+    public int getBuyBackCost(String item) {
+        return prices.getPrice(item, false);
+    }
+
+    public double getMarkdown() {
+        return prices.getMarkdown();
+    }
+
+    public PriceTable getPriceTable() {
+        return prices;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package treasurehunter;
+
+/**
+ * The Simulation class plays one game of Treasure Hunter without a window or a keyboard.<p>
+ * It drives the same Hunter, Shop and Town objects as TreasureHunter, but the moves come from
+ * method calls instead of the keyboard, so BatchSimulator can play lots of games at once.
+ */
+
+public class Simulation {
+    // constants
+    private static final int DEFAULT_MAX_TURNS = 500;
+
+    // static variables
+    private static final OutputSink WINDOW = NullOutput.INSTANCE;
+
+    // instance variables
+    private DifficultyProfile profile;
+    private Hunter hunter;
+    private Shop shop;
+    private Town currentTown;
+    private GameRandom random;
+    private WorldGenerator world;
+    private int turns;
+    private int townsVisited;
+
+    /**
+     * Sets up a new hunter in the first town, the same way TreasureHunter.welcomePlayer() does.
+     *
+     * @param profile The difficulty, which may be a variant no player can pick.
+     * @param seed The seed for every random roll in the game.
+     */
+    public Simulation(DifficultyProfile profile, long seed) {
+        this.profile = profile;
+        random = new GameRandom(seed);
+        world = new WorldGenerator(profile, WINDOW, random);
+        hunter = profile.createHunter("sim");
+        turns = 0;
+        townsVisited = 0;
+        enterTown();
+    }
+
+    /**
+     * @param difficulty "e", "n" or "h", or any other bundled difficulty.
+     * @param seed The seed for every random roll in the game.
+     */
+    public Simulation(String difficulty, long seed) {
+        this(DifficultyProfile.forKey(difficulty), seed);
+    }
+
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    public String getDifficulty() {
+        return profile.getKey();
+    }
+
+    public DifficultyProfile getProfile() {
+        return profile;
+    }
+
+    public Town getCurrentTown() {
+        return currentTown;
+    }
+
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getTownsVisited() {
+        return townsVisited;
+    }
+
+    /**
+     * @return true once the hunter has won or lost.
+     */
+    public boolean isOver() {
+        return hunter.isWin() || hunter.isGameOver();
+    }
+
+    public boolean buy(String item) {
+        turns++;
+        return shop.buy(hunter, item);
+    }
+
+    public boolean sell(String item) {
+        turns++;
+        return shop.sell(hunter, item);
+    }
+
+    public void lookForTrouble() {
+        turns++;
+        currentTown.lookForTrouble();
+    }
+
+    public void treasureHunt() {
+        turns++;
+        currentTown.treasureHunt();
+    }
+
+    public void digForGold() {
+        turns++;
+        currentTown.digForGold();
+    }
+
+    /**
+     * Tries to leave the current town and, if that works, enters a new one.
+     *
+     * @return true if the hunter moved on to a new town.
+     */
+    public boolean moveOn() {
+        turns++;
+        if (currentTown.leaveTown()) {
+            enterTown();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Plays the game with a simple greedy strategy until it ends or runs out of turns:
+     * hunt for treasure, dig if there is a shovel, move on if possible, buy what is needed to
+     * cross the terrain, and otherwise go look for trouble to earn gold.
+     *
+     * @param maxTurns The most turns to play before giving up.
+     */
+    public void playGreedy(int maxTurns) {
+        while (!isOver() && turns < maxTurns) {
+            String neededItem = currentTown.getTerrain().getNeededItem();
+            if (!currentTown.isSearched()) {
+                treasureHunt();
+            } else if (!currentTown.isDug() && hunter.hasItemInKit(Item.SHOVEL)) {
+                digForGold();
+            } else if (!hunter.hasItemInKit(Item.SHOVEL) && hunter.getGold() >= shop.checkMarketPrice("shovel", true)) {
+                buy("shovel");
+            } else if (currentTown.getTerrain().canCrossTerrain(hunter)) {
+                moveOn();
+            } else if (hunter.getGold() >= shop.checkMarketPrice(neededItem, true)) {
+                buy(neededItem);
+            } else {
+                lookForTrouble();
+            }
+        }
+    }
+
+    public void playGreedy() {
+        playGreedy(DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Plays the game with the moves from a policy until it ends or runs out of turns.
+     *
+     * @param policy The best moves, as worked out by PolicySolver for this game's difficulty.
+     * @param maxTurns The most turns to play before giving up.
+     */
+    public void playPolicy(PolicyTable policy, int maxTurns) {
+        while (!isOver() && turns < maxTurns) {
+            Move move = policy.getMove(hunter, currentTown);
+            if (move == Move.HUNT) {
+                treasureHunt();
+            } else if (move == Move.DIG) {
+                digForGold();
+            } else if (move == Move.MOVE_ON) {
+                moveOn();
+            } else if (move == Move.BUY) {
+                buy(policy.getItem(hunter, currentTown).getName());
+            } else if (move == Move.SELL) {
+                sell(policy.getItem(hunter, currentTown).getName());
+            } else {
+                lookForTrouble();
+            }
+        }
+    }
+
+    /**
+     * Creates a new town and adds the Hunter to it, like TreasureHunter.enterTown().
+     */
+    private void enterTown() {
+        currentTown = world.nextTown();
+        shop = currentTown.getShop();
+        currentTown.hunterArrives(hunter);
+        townsVisited++;
+    }
+}
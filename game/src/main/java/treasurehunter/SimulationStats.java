@@ -0,0 +1,87 @@
+package treasurehunter;
+
+/**
+ * Totals from a batch of finished Simulations.<p>
+ * Each worker thread fills its own SimulationStats and the parallel stream combines them at the end,
+ * so nothing here is shared between threads.
+ */
+
+public class SimulationStats {
+    // instance variables
+    private long games;
+    private long wins;
+    private long deaths;
+    private long totalGold;
+    private long totalTurns;
+    private long totalTowns;
+
+    /**
+     * Adds one finished game to the totals.
+     *
+     * @param simulation The finished game.
+     */
+    public void add(Simulation simulation) {
+        Hunter hunter = simulation.getHunter();
+        games++;
+        if (hunter.isWin()) {
+            wins++;
+        } else if (hunter.isGameOver()) {
+            deaths++;
+        }
+        totalGold += hunter.getGold();
+        totalTurns += simulation.getTurns();
+        totalTowns += simulation.getTownsVisited();
+    }
+
+    /**
+     * Merges another set of totals into this one.
+     *
+     * @param other The totals from another worker.
+     */
+    public void combine(SimulationStats other) {
+        games += other.games;
+        wins += other.wins;
+        deaths += other.deaths;
+        totalGold += other.totalGold;
+        totalTurns += other.totalTurns;
+        totalTowns += other.totalTowns;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getDeaths() {
+        return deaths;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public double getAverageGold() {
+        return games == 0 ? 0 : (double) totalGold / games;
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    public double getAverageTowns() {
+        return games == 0 ? 0 : (double) totalTowns / games;
+    }
+
+    /**
+     * @return A string representation of the totals.
+     */
+    public String infoString() {
+        return games + " games: " + wins + " wins, " + deaths + " deaths, "
+                + (games - wins - deaths) + " gave up"
+                + String.format("%nwin rate %.4f, avg gold %.2f, avg turns %.2f, avg towns %.2f",
+                getWinRate(), getAverageGold(), getAverageTurns(), getAverageTowns());
+    }
+}
@@ -0,0 +1,111 @@
+package treasurehunter;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An OutputSink that writes to the terminal using the ANSI color codes from Colors.<p>
+ * No Swing or AWT class is ever loaded, so it works on machines without a display.
+ * The color codes are turned into bytes once up front, and all text goes through one buffer
+ * that is written to standard output in a single call on flush().<p>
+ * The text goes straight to an OutputStream, with no channel wrapped around it: a channel made by
+ * Channels.newChannel() writes while holding a monitor, which pins a virtual thread to its carrier while a
+ * slow client keeps the write waiting, and it allocates its own 8 KB transfer buffer. A TerminalOutput is
+ * only ever used by the thread playing its game, so it needs no lock of its own.
+ */
+
+public class TerminalOutput implements OutputSink {
+    // constants
+    private static final byte[] CLEAR_SCREEN = "\033[H\033[2J".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DEFAULT_COLOR = Colors.RESET.getBytes(StandardCharsets.US_ASCII);
+    // closest ANSI color for every TextColor
+    private static final Map<TextColor, byte[]> COLOR_CODES = new EnumMap<>(TextColor.class);
+
+    static {
+        // black text would disappear on a dark terminal, so it uses the terminal's own color
+        COLOR_CODES.put(TextColor.BLACK, DEFAULT_COLOR);
+        COLOR_CODES.put(TextColor.BLUE, ansi(Colors.BLUE));
+        COLOR_CODES.put(TextColor.GREEN, ansi(Colors.GREEN));
+        COLOR_CODES.put(TextColor.ORANGE, ansi(Colors.YELLOW));
+        COLOR_CODES.put(TextColor.RED, ansi(Colors.RED));
+        COLOR_CODES.put(TextColor.MAGENTA, ansi(Colors.PURPLE));
+        COLOR_CODES.put(TextColor.YELLOW, ansi(Colors.YELLOW));
+    }
+
+    // instance variables
+    private final OutputStream out;
+    private ByteBuffer buffer;
+    private byte[] currentColor;
+
+    /**
+     * Creates a TerminalOutput that writes to standard output.
+     */
+    public TerminalOutput() {
+        this(new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * @param out Where to write the text, e.g. a socket's OutputStream.
+     */
+    public TerminalOutput(OutputStream out) {
+        this.out = out;
+        buffer = ByteBuffer.allocate(1024); // small so thousands of sessions stay cheap; grows when needed
+        currentColor = DEFAULT_COLOR;
+    }
+
+    public void addTextToWindow(String text, TextColor color) {
+        byte[] code = COLOR_CODES.getOrDefault(color, DEFAULT_COLOR);
+        if (code != currentColor) {
+            put(code);
+            currentColor = code;
+        }
+        put(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void clear() {
+        buffer.clear(); // anything not shown yet is cleared away too
+        currentColor = DEFAULT_COLOR;
+        put(CLEAR_SCREEN);
+    }
+
+    public void flush() {
+        if (currentColor != DEFAULT_COLOR) {
+            put(DEFAULT_COLOR); // leave the terminal the way we found it
+            currentColor = DEFAULT_COLOR;
+        }
+        if (buffer.position() == 0) {
+            return;
+        }
+        try {
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Adds bytes to the buffer, growing it if they do not fit.
+     */
+    private void put(byte[] bytes) {
+        if (buffer.remaining() < bytes.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes.length));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        buffer.put(bytes);
+    }
+
+    private static byte[] ansi(String code) {
+        return code.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,3 +1,5 @@
+package treasurehunter;
+
 /***
  * The Terrain class is designed to represent the zones between the towns in the Treasure Hunter game.
  * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
@@ -7,6 +9,8 @@ public class Terrain {
     // instance variables
     private String terrainName;
     private String neededItem;
+    private Item item;
+    private boolean swordCrosses;
 
     /**
      * Sets the class member variables
@@ -17,6 +21,8 @@ public class Terrain {
     public Terrain(String name, String item) {
         terrainName = name;
         neededItem = item.toLowerCase();
+        this.item = Item.fromName(neededItem);
+        swordCrosses = name.equals("Jungle"); // a sword cuts through the jungle as well as a machete
     }
 
     // accessors
@@ -28,6 +34,10 @@ public class Terrain {
         return neededItem;
     }
 
+    public Item getItem() {
+        return item;
+    }
+
     /**
      * Guards against a hunter crossing the zone without the proper item.
      * Searches the hunter's inventory for the proper item and determines whether the hunter can cross.
@@ -36,10 +46,10 @@ public class Terrain {
      * @return true if the Hunter has the proper item.
      */
     public boolean canCrossTerrain(Hunter hunter) {
-        if (hunter.hasItemInKit(neededItem)) {
+        if (hunter.hasItemInKit(item)) {
             return true;
         }
-        return ((getTerrainName().equals("Jungle")) && hunter.hasItemInKit("sword"));
+        return (swordCrosses && hunter.hasItemInKit(Item.SWORD));
     }
 
     /**
@@ -0,0 +1,18 @@
+package treasurehunter;
+
+/**
+ * The colors the game's text is shown in.<p>
+ * The game only ever names one of these, and each OutputSink turns it into whatever it draws with:
+ * OutputWindow into a java.awt.Color, TerminalOutput into an ANSI code. So a game played on a terminal or
+ * over a socket never loads any AWT class.
+ */
+
+public enum TextColor {
+    BLACK,
+    BLUE,
+    GREEN,
+    ORANGE,
+    RED,
+    MAGENTA,
+    YELLOW
+}
\ No newline at end of file
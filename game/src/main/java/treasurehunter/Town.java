@@ -0,0 +1,373 @@
+package treasurehunter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The Town Class is where it all happens.
+ * The Town is designed to manage all the things a Hunter can do in town.
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class Town {
+    // constants
+    // every town shares these, so building a town builds no strings
+    static final Terrain[] TERRAINS = {
+            new Terrain("Mountains", "Rope"), new Terrain("Ocean", "Boat"), new Terrain("Plains", "Horse"),
+            new Terrain("Desert", "Water"), new Terrain("Jungle", "Machete"), new Terrain("Marsh", "Boots")
+    };
+
+    // instance variables
+    private Hunter hunter;
+    private DifficultyProfile profile;
+    private OutputSink window;
+    private Shop shop;
+    private Terrain terrain;
+    // the latest news, only turned into text by getLatestNews()
+    private Message news;
+    private boolean toughTown;
+    private boolean searched;
+    private Treasure treasure;
+    private boolean dug;
+    private String recentMsg;
+    private GameRandom random;
+
+    /**
+     * The Town Constructor takes in a shop and the surrounding terrain, but leaves the hunter as null until one arrives.
+     *
+     * @param shop The town's shoppe.
+     * @param profile The difficulty, with the odds of every roll in town.
+     * @param window The window to print to.
+     * @param random The game's source of random rolls.
+     */
+    public Town(Shop shop, DifficultyProfile profile, OutputSink window, GameRandom random) {
+        this.shop = shop;
+        this.profile = profile;
+        this.window = window;
+        this.random = random;
+        this.terrain = getNewTerrain();
+
+        dug = false;
+        searched = false;
+        double rand = random.nextDouble();
+        double treasureChance = profile.getTreasureChance();
+        if (rand < treasureChance) {
+            treasure = Treasure.CROWN;
+        } else if (rand < 2 * treasureChance) {
+            treasure = Treasure.TROPHY;
+        } else if (rand < 3 * treasureChance) {
+            treasure = Treasure.GEM;
+        } else {
+            treasure = Treasure.DUST;
+        }
+
+        // the hunter gets set using the hunterArrives method, which
+        // gets called from a client class
+        hunter = null;
+        news = Message.NO_NEWS;
+
+        // higher toughness = more likely to be a tough town
+        toughTown = (random.nextDouble() < profile.getToughness());
+    }
+
+    /**
+     * Builds a town from saved state, see readFrom().
+     */
+    private Town(Shop shop, DifficultyProfile profile, OutputSink window, GameRandom random, Terrain terrain) {
+        this.shop = shop;
+        this.profile = profile;
+        this.window = window;
+        this.random = random;
+        this.terrain = terrain;
+    }
+
+    /**
+     * Writes the town's whole state (but not its hunter or its difficulty) for a GameSnapshot.
+     * The terrain, treasure and news are written by name rather than by their place in a list.
+     *
+     * @param out Where to write.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int flags = (toughTown ? 1 : 0) | (searched ? 2 : 0) | (dug ? 4 : 0);
+        out.writeUTF(terrain.getTerrainName());
+        out.writeUTF(treasure.getName());
+        out.writeByte(flags);
+        out.writeUTF(news.name());
+        out.writeLong(random.getSeed());
+        out.writeLong(random.getState());
+    }
+
+    /**
+     * Reads a town written by writeTo() and puts the hunter back in it.
+     *
+     * @param in Where to read from.
+     * @param shop The shop the town shares with the rest of the world.
+     * @param profile The town's difficulty.
+     * @param hunter The hunter who was in the town.
+     * @param window The window to print to.
+     * @return The restored town.
+     * @throws IOException if reading fails, or the data names an unknown terrain, treasure or news.
+     */
+    public static Town readFrom(DataInput in, Shop shop, DifficultyProfile profile, Hunter hunter, OutputSink window)
+            throws IOException {
+        String terrainName = in.readUTF();
+        Terrain terrain = null;
+        for (Terrain known : TERRAINS) {
+            if (known.getTerrainName().equals(terrainName)) {
+                terrain = known;
+            }
+        }
+        if (terrain == null) {
+            throw new IOException("Unknown terrain " + terrainName);
+        }
+        String treasureName = in.readUTF();
+        Treasure treasure = Treasure.fromName(treasureName);
+        if (treasure == null) {
+            throw new IOException("Unknown treasure " + treasureName);
+        }
+        int flags = in.readByte();
+        String newsName = in.readUTF();
+        Message news;
+        try {
+            news = Message.valueOf(newsName);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown news " + newsName, e);
+        }
+        GameRandom random = GameRandom.restore(in.readLong(), in.readLong());
+
+        Town town = new Town(shop, profile, window, random, terrain);
+        town.treasure = treasure;
+        town.toughTown = (flags & 1) != 0;
+        town.searched = (flags & 2) != 0;
+        town.dug = (flags & 4) != 0;
+        town.news = news;
+        town.hunter = hunter;
+        return town;
+    }
+
+    public DifficultyProfile getProfile() {
+        return profile;
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * @return The latest news, as text.
+     */
+    public String getLatestNews() {
+        return news.render(0, this);
+    }
+
+    /**
+     * @return The latest news, as a message code.
+     */
+    public Message getNews() {
+        return news;
+    }
+
+    public void setNews(Message news) {
+        this.news = news;
+    }
+
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    public String getRecentMsg() {
+        return recentMsg;
+    }
+
+    public boolean isToughTown() {
+        return toughTown;
+    }
+
+    public boolean isSearched() {
+        return searched;
+    }
+
+    public boolean isDug() {
+        return dug;
+    }
+
+    /**
+     * Assigns an object to the Hunter in town.
+     *
+     * @param hunter The arriving Hunter.
+     */
+    public void hunterArrives(Hunter hunter) {
+        this.hunter = hunter;
+        if (toughTown) {
+            news = Message.WELCOME_TOUGH;
+        } else {
+            news = Message.WELCOME_CALM;
+        }
+    }
+
+    /**
+     * Handles the action of the Hunter leaving the town.
+     *
+     * @return true if the Hunter was able to leave town.
+     */
+    public boolean leaveTown() {
+        boolean canLeaveTown = terrain.canCrossTerrain(hunter);
+        if (canLeaveTown) {
+            news = Message.CROSSED;
+            if (checkItemBreak()) {
+                hunter.removeItemFromKit(terrain.getItem());
+                news = Message.CROSSED_AND_BROKE;
+            }
+            return true;
+        }
+
+        news = Message.CANT_LEAVE;
+        return false;
+    }
+
+    /**
+     * Handles calling the enter method on shop whenever the user wants to access the shop.
+     *
+     * @param choice If the user wants to buy or sell items at the shop.
+     * @param input Where the user's answers to the shopkeeper are read from.
+     */
+    public void enterShop(String choice, PlayerInput input) {
+        long start = System.nanoTime();
+        long waited = input.getWaitNanos();
+        news = shop.enter(hunter, choice, input, window);
+        GameMetrics.getInstance().recordShop(System.nanoTime() - start - (input.getWaitNanos() - waited));
+    }
+
+    /**
+     * Gives the hunter a chance to fight for some gold.<p>
+     * The chances of finding a fight and winning the gold are based on the toughness of the town.<p>
+     * The tougher the town, the easier it is to find a fight, and the harder it is to win one.
+     */
+    public void lookForTrouble() {
+        double noTroubleChance = profile.getTroubleChance(toughTown);
+        if (random.nextDouble() > noTroubleChance) {
+            window.addMessage(Message.NO_TROUBLE);
+            news = Message.NO_BRAWL;
+        } else {
+            int goldDiff = random.nextInt(profile.getMaxBrawlGold()) + 1;
+            if (hunter.hasItemInKit(Item.SWORD)) {
+                window.addMessage(Message.SWORD_SCARES);
+                window.addMessage(Message.RECEIVE_GOLD);
+                window.addMessage(Message.GOLD_AMOUNT, goldDiff);
+                news = Message.WON_BRAWL;
+                hunter.changeGold(goldDiff);
+            } else {
+                window.addMessage(Message.BRAWL_STARTS);
+                if (random.nextDouble() > noTroubleChance) {
+                    window.addMessage(Message.BRAWL_WON);
+                    window.addMessage(Message.RECEIVE_GOLD);
+                    window.addMessage(Message.GOLD_AMOUNT, goldDiff);
+                    news = Message.WON_BRAWL;
+                    hunter.changeGold(goldDiff);
+                } else {
+                    window.addMessage(Message.BRAWL_LOST);
+                    window.addMessage(Message.PAY_GOLD);
+                    window.addMessage(Message.GOLD_AMOUNT, goldDiff);
+                    news = Message.LOST_BRAWL;
+                    hunter.changeGold(-goldDiff);
+                }
+            }
+        }
+    }
+
+    public String infoString() {
+        return "This nice little town is surrounded by " + terrain.getTerrainName() + ".";
+    }
+
+    public void treasureHunt() {
+        if (!searched) {
+            window.addMessage(Message.FOUND_A);
+            window.addMessage(Message.FOUND_TREASURE, treasure.ordinal());
+            if (treasure.isCollectible()) {
+                if (toughTown && random.nextDouble() < profile.getDropChance()) {
+                    window.addMessage(Message.DROPPED, treasure.ordinal());
+                    news = Message.DROPPED_TREASURE;
+                } else {
+                    if (!hunter.addTreasure(treasure)) {
+                        window.addMessage(Message.ALREADY_HAVE);
+                        window.addMessage(Message.TREASURE_NAME, treasure.ordinal());
+                        window.addMessage(Message.PUT_IT_BACK);
+                    }
+                    news = Message.OBTAINED_TREASURE;
+                }
+            } else {
+                news = Message.NO_TREASURE;
+            }
+            searched = true;
+        } else {
+            window.addMessage(Message.ALREADY_SEARCHED);
+            news = Message.NO_NEWS;
+        }
+    }
+
+    public void digForGold() {
+        if (!dug) {
+            if (hunter.hasItemInKit(Item.SHOVEL)) {
+                if (random.nextDouble() < profile.getDigChance()) {
+                    int gold = random.nextInt(profile.getMaxDugGold()) + 1;
+                    hunter.changeGold(gold);
+                    window.addMessage(Message.DUG_UP, gold);
+                    news = Message.DUG_GOLD;
+                } else {
+                    window.addMessage(Message.ONLY_DIRT);
+                    news = Message.DUG_DIRT;
+                }
+                dug = true;
+            } else {
+                window.addMessage(Message.NO_SHOVEL);
+                news = Message.BUY_SHOVEL;
+            }
+        } else {
+            window.addMessage(Message.ALREADY_DUG);
+            news = Message.NO_NEWS;
+        }
+    }
+
+    /**
+     * Determines the surrounding terrain for a town, and the item needed in order to cross that terrain.
+     *
+     * @return A Terrain object.
+     */
+    private Terrain getNewTerrain() {
+        double rnd = random.nextDouble();
+        if (rnd < .166666666) {
+            return TERRAINS[0];
+        } else if (rnd < .3333333333) {
+            return TERRAINS[1];
+        } else if (rnd < .5) {
+            return TERRAINS[2];
+        } else if (rnd < .666666666666) {
+            return TERRAINS[3];
+        } else if (rnd < .833333333333){
+            return TERRAINS[4];
+        } else {
+            return TERRAINS[5];
+        }
+    }
+
+    /**
+     * Determines whether a used item has broken.
+     *
+     * @return true if the item broke.
+     */
+    private boolean checkItemBreak() {
+        double breakChance = profile.getItemBreakChance();
+        if (breakChance == 0) {
+            // no roll, so an item that can't break doesn't use up a random number
+            return (false);
+        }
+        double rand = random.nextDouble();
+        return (rand < breakChance);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package treasurehunter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Treasure enum lists what can be found when hunting for treasure in a town.<p>
+ * Dust is worthless; the Hunter wins by collecting one of each of the others.
+ */
+
+public enum Treasure {
+    CROWN("crown"),
+    TROPHY("trophy"),
+    GEM("gem"),
+    DUST("dust");
+
+    // static variables
+    private static final Map<String, Treasure> BY_NAME = new HashMap<>();
+
+    static {
+        for (Treasure treasure : values()) {
+            BY_NAME.put(treasure.name, treasure);
+        }
+    }
+
+    // instance variables
+    private final String name;
+    private final int bit;
+
+    Treasure(String name) {
+        this.name = name;
+        bit = 1 << ordinal();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * @return true if this treasure counts towards winning the game.
+     */
+    public boolean isCollectible() {
+        return this != DUST;
+    }
+
+    /**
+     * Looks up a treasure by its name.
+     *
+     * @param name The lowercase treasure name, e.g. "gem".
+     * @return The matching Treasure, or null if there is no such treasure.
+     */
+    public static Treasure fromName(String name) {
+        return BY_NAME.get(name);
+    }
+}
@@ -0,0 +1,411 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * This class is responsible for controlling the Treasure Hunter game.<p>
+ * It handles the display of the menu and the processing of the player's choices.<p>
+ * It handles all the display based on the messages it receives from the Town object. <p>
+ *
+ * This code has been adapted from Ivan Turner's original program -- thank you Mr. Turner!
+ */
+
+public class TreasureHunter {
+    // instance variables
+    private Town currentTown;
+    private OutputSink window;
+    private PlayerInput input;
+    private ActionJournal journal;
+    private Leaderboard leaderboard;
+    private Path saveDirectory;
+    private WorldGenerator world;
+    private ExecutorService worldExecutor;
+    private Hunter hunter;
+    private GameRandom random;
+    private GameMetrics metrics;
+    private int turns;
+    // set once the menu loop is over, so a game that has ended is never parked
+    private boolean ended;
+    // what each menu choice does, see processChoice()
+    private final Map<String, Runnable> commands;
+    // the difficulties the player can pick from, by the key they type
+    private Map<String, DifficultyProfile> profiles;
+    private DifficultyProfile profile;
+
+    /**
+     * Constructs the Treasure Hunter game.
+     */
+    public TreasureHunter() {
+        this(new GameRandom(), new OutputWindow(), new PlayerInput(new ReaderCommandSource(System.in)));
+    }
+
+    /**
+     * Constructs the Treasure Hunter game with a given source of random rolls, place to show it
+     * and place to read the player's moves from, so a game can be replayed from its seed,
+     * played without a window, or played over a network connection.
+     *
+     * @param random The game's source of random rolls.
+     * @param window Where the game's text is shown.
+     * @param input Where the player's moves are read from.
+     */
+    public TreasureHunter(GameRandom random, OutputSink window, PlayerInput input) {
+        this.random = random;
+        this.window = window;
+        this.input = input;
+        worldExecutor = null;
+        journal = null;
+        leaderboard = null;
+        saveDirectory = null;
+        turns = 0;
+        ended = false;
+        metrics = GameMetrics.getInstance();
+        profiles = DifficultyProfile.getDefaults();
+        commands = new HashMap<>();
+        commands.put("b", () -> currentTown.enterShop("b", input));
+        commands.put("s", () -> currentTown.enterShop("s", input));
+        commands.put("e", () -> window.addTextToWindow(currentTown.getTerrain().infoString(), TextColor.BLACK));
+        commands.put("m", this::moveOn);
+        commands.put("l", () -> currentTown.lookForTrouble());
+        commands.put("h", () -> currentTown.treasureHunt());
+        commands.put("d", () -> currentTown.digForGold());
+        commands.put("x", () -> { });
+        // these will be initialized in the play method
+        currentTown = null;
+        hunter = null;
+        profile = null;
+    }
+
+    /**
+     * Constructs the Treasure Hunter game, building upcoming towns in the background.
+     *
+     * @param random The game's source of random rolls.
+     * @param window Where the game's text is shown.
+     * @param input Where the player's moves are read from.
+     * @param worldExecutor Runs the background town builder.
+     */
+    public TreasureHunter(GameRandom random, OutputSink window, PlayerInput input, ExecutorService worldExecutor) {
+        this(random, window, input);
+        this.worldExecutor = worldExecutor;
+    }
+
+    /**
+     * Records everything the player types, and what happens after each choice, in a journal.
+     * The journal must have been created with this game's seed.
+     *
+     * @param journal The journal to record to.
+     */
+    public void setJournal(ActionJournal journal) {
+        this.journal = journal;
+        input.setJournal(journal);
+    }
+
+    /**
+     * Records the game on a leaderboard when it ends, however it ends.
+     *
+     * @param leaderboard The leaderboard to record to.
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Offers the player a different set of difficulties, e.g. read from a config file by DifficultyProfile.load().
+     *
+     * @param profiles The difficulties by the key the player types to pick them.
+     */
+    public void setProfiles(Map<String, DifficultyProfile> profiles) {
+        this.profiles = profiles;
+    }
+
+    /**
+     * Parks the game in a directory if the player goes away before it ends (their input runs out or breaks),
+     * and brings a parked game back when a player gives the same name.
+     * A parked game is kept under the hunter's name, so anyone who gives that name picks it up.
+     *
+     * @param saveDirectory The directory to keep parked games in; it must exist.
+     */
+    public void setSaveDirectory(Path saveDirectory) {
+        this.saveDirectory = saveDirectory;
+    }
+
+    /**
+     * Saves the game in progress, see GameSnapshot.
+     *
+     * @return The snapshot bytes.
+     * @throws IllegalStateException if the hunter hasn't reached a town yet.
+     */
+    public byte[] saveSnapshot() {
+        if (currentTown == null || world == null) {
+            throw new IllegalStateException("The game hasn't started");
+        }
+        return GameSnapshot.save(hunter, currentTown, world.getResumeRandom(), turns);
+    }
+
+    /**
+     * Picks up a saved game instead of starting a new one; call before play(), which then goes straight to the menu.
+     *
+     * @param snapshot Bytes from saveSnapshot(), of a game played on one of this game's difficulties.
+     * @throws IOException if the snapshot can't be read.
+     */
+    public void resume(byte[] snapshot) throws IOException {
+        GameSnapshot saved = GameSnapshot.load(snapshot, profiles, window);
+        hunter = saved.getHunter();
+        currentTown = saved.getTown();
+        profile = currentTown.getProfile();
+        random = saved.getWorldRandom();
+        turns = saved.getTurns();
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    public Town getCurrentTown() {
+        return currentTown;
+    }
+
+    /**
+     * Starts the game; this is the only public method
+     */
+    public void play() {
+        if (hunter == null) {
+            welcomePlayer();
+        }
+        // the difficulty is known now, so the towns can start being built
+        world = new WorldGenerator(profile, window, random, worldExecutor);
+        try {
+            if (currentTown == null) {
+                enterTown();
+            }
+            showMenu();
+        } catch (NoSuchElementException | UncheckedIOException e) {
+            // the player went away before the game ended
+            if (saveDirectory != null && currentTown != null && !ended) {
+                try {
+                    Files.write(parkedGame(hunter.getHunterName()), saveSnapshot());
+                } catch (IOException | UncheckedIOException saveFailure) {
+                    e.addSuppressed(saveFailure);
+                }
+            }
+            throw e;
+        } finally {
+            world.close();
+            if (journal != null) {
+                journal.flush();
+            }
+        }
+    }
+
+    /**
+     * Creates a hunter object at the beginning of the game and populates the class member variable with it.
+     */
+    private void welcomePlayer() {
+        window.addTextToWindow("Welcome to TREASURE HUNTER! \n", TextColor.BLACK);
+        window.addTextToWindow("Going hunting for the big treasure, eh? \n", TextColor.BLACK);
+        window.addTextToWindow("What's your name, Hunter? ", TextColor.BLACK);
+        window.flush();
+        String name = input.nextLine();
+        window.clear();
+        if (saveDirectory != null && unpark(name)) {
+            window.addTextToWindow("Welcome back, " + name + "! Your hunt carries on where you left it.\n", TextColor.BLACK);
+            return;
+        }
+
+        window.addTextToWindow("Easy, normal, or hard mode? (e/n/h): ", TextColor.RED);
+        window.flush();
+        String choice = input.nextLine();
+        window.clear();
+        // anything that isn't a difficulty gets normal
+        DifficultyProfile normal = profiles.getOrDefault(DifficultyProfile.DEFAULT_KEY,
+                DifficultyProfile.forKey(DifficultyProfile.DEFAULT_KEY));
+        profile = profiles.getOrDefault(choice, normal);
+        // set hunter instance variable
+        hunter = profile.createHunter(name);
+    }
+
+    /**
+     * Picks up the game parked under a name, if there is one; only one player can pick up each parked game.
+     *
+     * @param name The name the player gave.
+     * @return true if a parked game was picked up.
+     */
+    private boolean unpark(String name) {
+        Path parked = parkedGame(name);
+        try {
+            byte[] snapshot = Files.readAllBytes(parked);
+            Files.delete(parked);
+            resume(snapshot);
+            if (journal != null) {
+                // the game carries on from the snapshot, not the seed, so the replay needs it too
+                journal.recordResume(snapshot);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            // a parked game that can't be read is no use to anyone
+            window.addTextToWindow("Your last hunt could not be read, so you start anew.\n", TextColor.RED);
+            return false;
+        }
+    }
+
+    /**
+     * @return Where the game of the hunter with this name is parked; named after a hash of the name, so any
+     * name is safe to use.
+     */
+    private Path parkedGame(String name) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            return saveDirectory.resolve(HexFormat.of().formatHex(hash) + ".snapshot");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM has SHA-256", e);
+        }
+    }
+
+    /**
+     * Creates a new town and adds the Hunter to it.
+     */
+    private void enterTown() {
+        // the next Town (and its Shop) comes from the world generator, which may
+        // have built it ahead of time; we store it as an instance variable
+        // since we need to access the Town object in other methods of this class
+        currentTown = world.nextTown();
+
+        // calling the hunterArrives method, which takes the Hunter
+        // as a parameter; note this also could have been done in the
+        // constructor for Town, but this illustrates another way to associate
+        // an object with an object of a different class
+        currentTown.hunterArrives(hunter);
+    }
+
+    public DifficultyProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets the difficulty being played, as one of the three the game has always had.
+     * The samurai and test modes, and any difficulty read from a config file other than "e" and "h",
+     * count as normal; getProfile().getKey() tells them apart.
+     *
+     * @return "e", "n" or "h".
+     */
+    public String getDifficulty() {
+        if (profile.getKey().equals("h")) {
+            return "h";
+        } else if (profile.getKey().equals("e")) {
+            return "e";
+        } else {
+            return "n";
+        }
+    }
+
+    /**
+     * Displays the menu and receives the choice from the user.<p>
+     * The choice is sent to the processChoice() method for parsing.<p>
+     * This method will loop until the user chooses to exit.
+     */
+    private void showMenu() {
+        String choice = "";
+        while (!choice.equals("x") && !hunter.isGameOver() && !hunter.isWin()) {
+            long renderStart = System.nanoTime();
+            window.addTextToWindow("\n", TextColor.BLACK);
+            window.addTextToWindow(currentTown.getLatestNews(), TextColor.BLACK);
+            window.addTextToWindow("\n", TextColor.BLACK);
+            window.addTextToWindow("***\n", TextColor.BLACK);
+            window.addTextToWindow(hunter.infoString(), TextColor.ORANGE);
+            window.addTextToWindow("\n", TextColor.BLACK);
+            window.addTextToWindow(currentTown.infoString(), TextColor.BLACK);
+            window.addTextToWindow("\n", TextColor.BLACK);
+            window.addTextToWindow("\n(B)uy something at the shop.", TextColor.BLACK);
+            window.addTextToWindow("\n(S)ell something at the shop.", TextColor.BLACK);
+            window.addTextToWindow("\n(E)xplore surrounding terrain.", TextColor.BLACK);
+            window.addTextToWindow("\n(M)ove on to a different town.", TextColor.BLACK);
+            window.addTextToWindow("\n(L)ook for trouble!", TextColor.BLACK);
+            window.addTextToWindow("\n(H)unt for treasure.", TextColor.BLACK);
+            window.addTextToWindow("\n(D)ig for gold.", TextColor.BLACK);
+            window.addTextToWindow("\nGive up the hunt and e(X)it.", TextColor.BLACK);
+            window.addTextToWindow("\n", TextColor.BLACK);
+            window.addTextToWindow("\nWhat's your next move? ", TextColor.BLACK);
+            window.flush();
+            metrics.recordRender(System.nanoTime() - renderStart);
+            choice = input.nextLine();
+            long start = System.nanoTime();
+            long waited = input.getWaitNanos();
+            window.clear();
+            processChoice(choice);
+            turns++;
+            metrics.recordCommand(choice, System.nanoTime() - start - (input.getWaitNanos() - waited));
+            if (journal != null) {
+                journal.recordOutcome(hunter);
+            }
+        }
+        ended = true;
+        if (hunter.isWin()) {
+            window.clear();
+            window.addTextToWindow(currentTown.getLatestNews(), TextColor.BLACK);
+            window.addTextToWindow("Congratulations, you have found the last of the three treasures, you win!", TextColor.YELLOW);
+        } else if (hunter.isGameOver()) {
+            window.addTextToWindow("\nWhat? You don't have enough money to pay up...then you're going to have to pay with your life!\n", TextColor.RED);
+            window.addTextToWindow("\nThe stranger comes up to you, weapon in hand, malice unshakable. Their hits connect to your body and you begin to feel numb all over. ", TextColor.RED);
+            window.addTextToWindow("As if it were just a dream, you try to get back up. But the pain you feel in your bones overwhelms you. ", TextColor.RED);
+            window.addTextToWindow("Your body collapses to the ground, as if all of your matter begins to dematerializes. You hear crazed laughter from above. ", TextColor.RED);
+            window.addTextToWindow("Your connection to the mortal world begins to unravel, string by string. You cannot hold on any longer. ", TextColor.RED);
+            window.addTextToWindow("It seems like the treasure cannot be hunted after all... ", TextColor.RED);
+            window.addTextToWindow("\nEverything goes dark and you die.", TextColor.RED);
+        } else {
+            window.addTextToWindow("Fare thee well, ", TextColor.BLACK);
+            window.addTextToWindow(hunter.getHunterName(), TextColor.MAGENTA);
+            window.addTextToWindow("!", TextColor.BLACK);
+        }
+        if (leaderboard != null) {
+            // ranked by the exact difficulty, so samurai and test games don't crowd out normal ones
+            LeaderboardEntry entry = leaderboard.add(hunter, profile.getKey(), turns);
+            int place = leaderboard.getTop(profile.getKey(), 10).indexOf(entry) + 1;
+            if (place > 0) {
+                window.addTextToWindow("\nYou made the leaderboard at number " + place + "!", TextColor.ORANGE);
+            }
+        }
+        window.flush();
+    }
+
+
+    /**
+     * Takes the choice received from the menu and calls the appropriate method to carry out the instructions.
+     * @param choice The action to process.
+     */
+    private void processChoice(String choice) {
+        Runnable command = commands.get(choice);
+        if (command != null) {
+            command.run();
+        } else {
+            window.addTextToWindow("Yikes! That's an invalid option! Try again.", TextColor.BLACK);
+        }
+    }
+
+    /**
+     * Leaves the current town for the next one, if the hunter can cross the terrain.
+     */
+    private void moveOn() {
+        if (currentTown.leaveTown()) {
+            // This town is going away so print its news ahead of time.
+            window.addTextToWindow(currentTown.getLatestNews(), TextColor.BLACK);
+            enterTown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package treasurehunter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class TreasureHunterRunner {
+    /**
+     * Plays in a Swing window, or on the terminal when started with -terminal or with -Djava.awt.headless=true.
+     * On the terminal no AWT class is ever loaded, so AWT never has to start up.<p>
+     * Usage: TreasureHunterRunner [-terminal] [-seed number] [-journal file] [-metrics seconds] [-script file]
+     * [-leaderboard file] [-difficulties file] [-saves directory]<p>
+     * With -metrics the command timings are printed to System.err that often, and shown through JMX.
+     * With -script the player's lines are read from the file instead of the keyboard; piping a script
+     * into System.in works the same way. The game stops quietly when the lines run out.
+     * With -leaderboard the finished game is added to that leaderboard file.
+     * With -difficulties the player picks from the difficulties in that file instead of the bundled ones.
+     * With -saves a game whose input runs out is parked in that directory, and picked up again the next time
+     * a player gives the same name.
+     */
+    public static void main(String[] args) throws IOException {
+        // asking AWT whether there is a display would load it, so only the property is checked
+        boolean terminal = Boolean.getBoolean("java.awt.headless");
+        GameRandom random = new GameRandom();
+        Path journalPath = null;
+        Path leaderboardPath = null;
+        Path saveDirectory = null;
+        CommandSource source = null;
+        Map<String, DifficultyProfile> profiles = DifficultyProfile.getDefaults();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-terminal")) {
+                terminal = true;
+            } else if (args[i].equals("-seed")) {
+                random = new GameRandom(Long.parseLong(args[++i]));
+            } else if (args[i].equals("-journal")) {
+                journalPath = Path.of(args[++i]);
+            } else if (args[i].equals("-metrics")) {
+                GameMetrics.register();
+                GameMetrics.startDump(Long.parseLong(args[++i]), System.err);
+            } else if (args[i].equals("-leaderboard")) {
+                leaderboardPath = Path.of(args[++i]);
+            } else if (args[i].equals("-script")) {
+                source = new ReaderCommandSource(Path.of(args[++i]));
+            } else if (args[i].equals("-difficulties")) {
+                profiles = DifficultyProfile.load(Path.of(args[++i]));
+            } else if (args[i].equals("-saves")) {
+                saveDirectory = Path.of(args[++i]);
+            }
+        }
+
+        OutputSink window = terminal ? new TerminalOutput() : new OutputWindow();
+        if (source == null) {
+            source = new ReaderCommandSource(System.in);
+        }
+        TreasureHunter game = new TreasureHunter(random, window, new PlayerInput(source));
+        game.setProfiles(profiles);
+        game.setSaveDirectory(saveDirectory);
+        Leaderboard leaderboard = leaderboardPath == null ? null : new Leaderboard(leaderboardPath);
+        game.setLeaderboard(leaderboard);
+        try {
+            if (journalPath == null) {
+                game.play();
+            } else {
+                try (ActionJournal journal = new ActionJournal(journalPath, random.getSeed(), profiles)) {
+                    game.setJournal(journal);
+                    game.play();
+                }
+            }
+        } catch (NoSuchElementException e) {
+            // the script (or piped input) ran out before the game ended
+            window.flush();
+        } finally {
+            if (leaderboard != null) {
+                leaderboard.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package treasurehunter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * The WorldGenerator builds the towns a hunter will visit, in order.<p>
+ * Every town gets its own GameRandom split off the world's GameRandom, so the n-th town of a game
+ * is always the same for the same seed, no matter which thread built it or when.<p>
+ * Given an executor, the generator builds the next few towns in the background and hands them over
+ * through a bounded queue, so moving to a new town never waits on terrain, treasure and toughness rolls.
+ * If building a town fails, the failure is queued in the town's place and nextTown() throws it, rather than
+ * waiting for a town that will never come. The game closes the generator when it ends, which stops the
+ * builder. Without an executor, each town is built when it is asked for.<p>
+ * The generator remembers where the world's GameRandom was just after the last town it handed out, so
+ * a saved game (see GameSnapshot) can start a new generator that builds the same towns this one would have,
+ * including any it had already built ahead.
+ */
+
+public class WorldGenerator implements AutoCloseable {
+    // constants
+    private static final int TOWNS_AHEAD = 4;
+
+    // instance variables
+    private final DifficultyProfile profile;
+    private final OutputSink window;
+    private final GameRandom worldRandom;
+    // a shop keeps nothing about its customers, so every town shares this one
+    private final Shop shop;
+    private final BlockingQueue<UpcomingTown> upcoming;
+    private Future<?> producer;
+    // the world's state just after the last town handed out was split off it
+    private long handedOutState;
+
+    /**
+     * Creates a generator that builds each town when it is asked for.
+     *
+     * @param profile The difficulty every town is built for.
+     * @param window Where the towns and their shops print to.
+     * @param worldRandom The seed source for every town; only the generator may use it from now on.
+     */
+    public WorldGenerator(DifficultyProfile profile, OutputSink window, GameRandom worldRandom) {
+        this(profile, window, worldRandom, null);
+    }
+
+    /**
+     * Creates a generator that builds upcoming towns in the background.
+     *
+     * @param profile The difficulty every town is built for.
+     * @param window Where the towns and their shops print to.
+     * @param worldRandom The seed source for every town; only the generator may use it from now on.
+     * @param executor Runs the background builder, or null to build each town when it is asked for.
+     */
+    public WorldGenerator(DifficultyProfile profile, OutputSink window, GameRandom worldRandom, ExecutorService executor) {
+        this.profile = profile;
+        this.window = window;
+        this.worldRandom = worldRandom;
+        shop = new Shop(profile);
+        handedOutState = worldRandom.getState();
+        if (executor == null) {
+            upcoming = null;
+        } else {
+            upcoming = new ArrayBlockingQueue<>(TOWNS_AHEAD);
+            producer = executor.submit(this::produce);
+        }
+    }
+
+    /**
+     * @return The next town on the hunter's journey.
+     * @throws IllegalStateException if the background builder failed, or the generator has been closed.
+     */
+    public Town nextTown() {
+        if (upcoming == null) {
+            Town town = buildTown();
+            handedOutState = worldRandom.getState();
+            return town;
+        }
+        if (producer.isCancelled()) {
+            throw new IllegalStateException("The world generator has been closed");
+        }
+        try {
+            UpcomingTown next = upcoming.take();
+            if (next.failure != null) {
+                // the builder has stopped, so there is room to leave the failure for any later call
+                upcoming.put(next);
+                throw new IllegalStateException("Building the next town failed", next.failure);
+            }
+            handedOutState = next.worldState;
+            return next.town;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next town", e);
+        }
+    }
+
+    /**
+     * @return A GameRandom that makes a new generator build the same towns this one will hand out next.
+     */
+    public GameRandom getResumeRandom() {
+        return GameRandom.restore(worldRandom.getSeed(), handedOutState);
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+
+    /**
+     * Stops the background builder, if there is one.
+     */
+    public void close() {
+        if (producer != null) {
+            producer.cancel(true);
+        }
+    }
+
+    /**
+     * Keeps the queue full until the generator is closed, or a town can't be built.
+     */
+    private void produce() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                UpcomingTown next;
+                try {
+                    Town town = buildTown();
+                    next = new UpcomingTown(town, worldRandom.getState(), null);
+                } catch (RuntimeException | Error e) {
+                    next = new UpcomingTown(null, 0, e);
+                }
+                upcoming.put(next);
+                if (next.failure != null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed; the game is over
+        }
+    }
+
+    private Town buildTown() {
+        return new Town(shop, profile, window, worldRandom.split());
+    }
+
+    /**
+     * A town built ahead, with the world's state just after it was built, or why it couldn't be built.
+     */
+    private static class UpcomingTown {
+        private final Town town;
+        private final long worldState;
+        private final Throwable failure;
+
+        private UpcomingTown(Town town, long worldState, Throwable failure) {
+            this.town = town;
+            this.worldState = worldState;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package treasurehunter;
+
+/**
+ * A WorldMap is a fixed world of towns joined by roads, where every road crosses a Terrain and needs that
+ * terrain's item (or, for the jungle, a sword).<p>
+ * The whole map is rolled from one GameRandom when it is built, so the same seed always gives the same world.
+ * A town is only built the first time it is asked for, from its own seed, and is then kept: a hunter who comes
+ * back finds it as they left it, already searched or dug.<p>
+ * Roads are kept in flat arrays, every town's roads next to each other (both ends of a road list it), so a
+ * world of hundreds of thousands of towns costs a few int and byte arrays rather than an object per road.
+ * Every town can be reached from every other with a full kit: each town past the first has a road to an
+ * earlier one.
+ */
+
+public class WorldMap {
+    // constants
+    public static final int DEFAULT_ROADS_PER_TOWN = 2;
+    // the terrain items own the lowest six bits of a kit, so a set of them is a number below 64
+    public static final int CROSSING_SETS = 1 << Town.TERRAINS.length;
+    private static final int TERRAIN_BITS = CROSSING_SETS - 1;
+
+    // instance variables
+    private final DifficultyProfile profile;
+    private final OutputSink window;
+    // a shop keeps nothing about its customers, so every town shares this one
+    private final Shop shop;
+    private final long[] townSeeds;
+    private final Town[] towns;
+    // town t's roads are roadEnds[roadStarts[t]] up to roadEnds[roadStarts[t + 1] - 1]
+    private final int[] roadStarts;
+    private final int[] roadEnds;
+    // which of Town.TERRAINS each road crosses
+    private final byte[] roadTerrains;
+
+    /**
+     * Rolls a new world.
+     *
+     * @param profile The difficulty every town is built for.
+     * @param window Where the towns and their shops print to.
+     * @param townCount How many towns the world has; at least 1.
+     * @param roadsPerTown How many roads each town has on average, counting both ends; at least 1.
+     * @param worldRandom The seed source for the map and every town.
+     */
+    public WorldMap(DifficultyProfile profile, OutputSink window, int townCount, int roadsPerTown,
+                    GameRandom worldRandom) {
+        if (townCount < 1 || roadsPerTown < 1) {
+            throw new IllegalArgumentException("A world needs at least one town and one road per town");
+        }
+        this.profile = profile;
+        this.window = window;
+        shop = new Shop(profile);
+        townSeeds = new long[townCount];
+        towns = new Town[townCount];
+        for (int town = 0; town < townCount; town++) {
+            townSeeds[town] = worldRandom.split().getSeed();
+        }
+
+        // a tree through every town first, so the world is in one piece, then the rest of the roads at random
+        int roadCount = Math.max(townCount - 1, (int) ((long) townCount * roadsPerTown / 2));
+        int[] from = new int[roadCount];
+        int[] to = new int[roadCount];
+        byte[] terrains = new byte[roadCount];
+        for (int road = 0; road < roadCount; road++) {
+            if (road < townCount - 1) {
+                from[road] = road + 1;
+                to[road] = worldRandom.nextInt(road + 1);
+            } else {
+                from[road] = worldRandom.nextInt(townCount);
+                to[road] = worldRandom.nextInt(townCount);
+            }
+            terrains[road] = (byte) worldRandom.nextInt(Town.TERRAINS.length);
+        }
+
+        // counted first, so every town's roads can be laid out side by side
+        roadStarts = new int[townCount + 1];
+        for (int road = 0; road < roadCount; road++) {
+            roadStarts[from[road] + 1]++;
+            roadStarts[to[road] + 1]++;
+        }
+        for (int town = 0; town < townCount; town++) {
+            roadStarts[town + 1] += roadStarts[town];
+        }
+        int[] next = new int[townCount];
+        System.arraycopy(roadStarts, 0, next, 0, townCount);
+        roadEnds = new int[roadStarts[townCount]];
+        roadTerrains = new byte[roadStarts[townCount]];
+        for (int road = 0; road < roadCount; road++) {
+            int slot = next[from[road]]++;
+            roadEnds[slot] = to[road];
+            roadTerrains[slot] = terrains[road];
+            slot = next[to[road]]++;
+            roadEnds[slot] = from[road];
+            roadTerrains[slot] = terrains[road];
+        }
+    }
+
+    public WorldMap(DifficultyProfile profile, OutputSink window, int townCount, GameRandom worldRandom) {
+        this(profile, window, townCount, DEFAULT_ROADS_PER_TOWN, worldRandom);
+    }
+
+    public DifficultyProfile getProfile() {
+        return profile;
+    }
+
+    public int getTownCount() {
+        return towns.length;
+    }
+
+    /**
+     * Gets a town, building it the first time it is asked for.
+     *
+     * @param town The town's number, from 0 to getTownCount() - 1.
+     * @return The town; the same one every time.
+     */
+    public Town getTown(int town) {
+        if (towns[town] == null) {
+            towns[town] = new Town(shop, profile, window, new GameRandom(townSeeds[town]));
+        }
+        return towns[town];
+    }
+
+    /**
+     * @param town A town's number.
+     * @return How many roads lead out of the town.
+     */
+    public int getRoadCount(int town) {
+        return roadStarts[town + 1] - roadStarts[town];
+    }
+
+    /**
+     * @param town A town's number.
+     * @param road Which of the town's roads, from 0 to getRoadCount(town) - 1.
+     * @return The number of the town at the other end of the road.
+     */
+    public int getNeighbour(int town, int road) {
+        return roadEnds[roadStarts[town] + road];
+    }
+
+    /**
+     * @param town A town's number.
+     * @param road Which of the town's roads, from 0 to getRoadCount(town) - 1.
+     * @return The terrain the road crosses.
+     */
+    public Terrain getTerrain(int town, int road) {
+        return Town.TERRAINS[roadTerrains[roadStarts[town] + road]];
+    }
+
+    /**
+     * Checks whether a road can be travelled with a set of terrain items.
+     *
+     * @param town A town's number.
+     * @param road Which of the town's roads.
+     * @param crossings A set of terrain items, from crossingsFor().
+     * @return true if the set has the road's item.
+     */
+    public boolean canTravel(int town, int road, int crossings) {
+        return (crossings & Town.TERRAINS[roadTerrains[roadStarts[town] + road]].getItem().getBit()) != 0;
+    }
+
+    /**
+     * Works out which terrains a kit can cross.
+     *
+     * @param kit A kit, as returned by Hunter.getKit().
+     * @return The kit's terrain items, with a sword counted as a machete; a number below CROSSING_SETS.
+     */
+    public static int crossingsFor(int kit) {
+        int crossings = kit & TERRAIN_BITS;
+        if ((kit & Item.SWORD.getBit()) != 0) {
+            crossings |= Item.MACHETE.getBit();
+        }
+        return crossings;
+    }
+}
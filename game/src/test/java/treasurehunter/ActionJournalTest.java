@@ -0,0 +1,149 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A journal must read back exactly what was recorded, replay to the same hunter, and refuse a file cut short.
+ */
+
+public class ActionJournalTest {
+    private static final List<String> SCRIPT = List.of("ann bonny", "n", "l", "h", "b", "shovel", "y", "d",
+            "l", "m", "s", "rope", "y", "h", "l", "x");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void roundTripReplaysTheSameGame() throws IOException {
+        Path path = dir.resolve("game.journal");
+        TreasureHunter game = play(path, 1234L, DifficultyProfile.getDefaults());
+
+        JournalReplayer replayer = new JournalReplayer(path);
+        assertEquals(1234L, replayer.getSeed());
+        assertEquals(SCRIPT, replayer.getLines());
+        assertEquals(game.getTurns(), replayer.getOutcomes());
+        assertEquals(DifficultyProfile.getDefaults().keySet(), replayer.getProfiles().keySet());
+        TreasureHunter replayed = replayer.replay();
+        assertTrue(replayer.matchesLastOutcome(replayed.getHunter()));
+        assertEquals(game.getHunter().infoString(), replayed.getHunter().infoString());
+    }
+
+    @Test
+    public void replayUsesTheJournaledDifficulties() throws IOException {
+        // a normal game with far more gold than the bundled normal gives
+        DifficultyProfile rich = DifficultyProfile.forKey("n").with("startingGold", 500);
+        Path path = dir.resolve("rich.journal");
+        TreasureHunter game = play(path, 99L, Map.of("n", rich));
+
+        JournalReplayer replayer = new JournalReplayer(path);
+        assertEquals(rich.getSettings(), replayer.getProfiles().get("n").getSettings());
+        TreasureHunter replayed = replayer.replay();
+        assertTrue(replayer.matchesLastOutcome(replayed.getHunter()));
+        assertEquals(game.getHunter().getGold(), replayed.getHunter().getGold());
+    }
+
+    @Test
+    public void turnsAreWrittenOnceTheFlushIntervalPasses() throws IOException, InterruptedException {
+        Path path = dir.resolve("open.journal");
+        try (ActionJournal journal = new ActionJournal(path, 1L)) {
+            journal.recordInput("n");
+            journal.recordOutcome(new Hunter("x", 10));
+            Thread.sleep(ActionJournal.FLUSH_NANOS / 1_000_000 + 10);
+            journal.recordInput("l");
+            journal.recordOutcome(new Hunter("x", 12));
+            assertEquals(2, new JournalReplayer(path).getOutcomes());
+
+            journal.recordInput("h");
+            journal.recordOutcome(new Hunter("x", 14));
+            journal.flush();
+            assertEquals(3, new JournalReplayer(path).getOutcomes());
+        }
+    }
+
+    @Test
+    public void fastTurnsAreWrittenInBatches() throws IOException {
+        Path path = dir.resolve("fast.journal");
+        try (ActionJournal journal = new ActionJournal(path, 1L)) {
+            Hunter hunter = new Hunter("x", 10);
+            // a few turns don't reach FLUSH_BYTES, so unless the machine stalls for FLUSH_NANOS nothing is written
+            long start = System.nanoTime();
+            for (int turn = 0; turn < 10; turn++) {
+                journal.recordInput("l");
+                journal.recordOutcome(hunter);
+            }
+            if (System.nanoTime() - start < ActionJournal.FLUSH_NANOS) {
+                assertEquals(0, Files.size(path));
+            }
+            for (int turn = 0; turn < ActionJournal.FLUSH_BYTES / 16; turn++) {
+                journal.recordInput("l");
+                journal.recordOutcome(hunter);
+            }
+            assertTrue(Files.size(path) >= ActionJournal.FLUSH_BYTES);
+        }
+    }
+
+    @Test
+    public void longNameIsJournaledAsTheGameUsedIt() throws IOException {
+        // an é is two bytes, so a cut at an odd byte count would split one
+        String name = "a" + "\u00e9".repeat(3 * PlayerInput.MAX_LINE_BYTES);
+        Path path = dir.resolve("long.journal");
+        TreasureHunter game = new TreasureHunter(new GameRandom(3L), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource(name, "n", "l", "x")));
+        try (ActionJournal journal = new ActionJournal(path, 3L)) {
+            game.setJournal(journal);
+            game.play();
+        }
+        String used = game.getHunter().getHunterName();
+        assertEquals("a" + "\u00e9".repeat((PlayerInput.MAX_LINE_BYTES - 1) / 2), used);
+
+        JournalReplayer replayer = new JournalReplayer(path);
+        assertEquals(used, replayer.getLines().get(0));
+        TreasureHunter replayed = replayer.replay();
+        assertEquals(used, replayed.getHunter().getHunterName());
+        assertTrue(replayer.matchesLastOutcome(replayed.getHunter()));
+    }
+
+    @Test
+    public void truncatedJournalIsAnIOException() throws IOException {
+        Path path = dir.resolve("whole.journal");
+        play(path, 5L, DifficultyProfile.getDefaults());
+        byte[] whole = Files.readAllBytes(path);
+        Path cut = dir.resolve("cut.journal");
+        // every cut that ends mid-header or mid-record; cuts between records are valid journals
+        int failures = 0;
+        for (int length = 0; length < whole.length; length++) {
+            Files.write(cut, Arrays.copyOf(whole, length));
+            try {
+                new JournalReplayer(cut);
+            } catch (IOException e) {
+                failures++;
+            }
+        }
+        assertTrue(failures > whole.length / 2);
+        Files.write(cut, Arrays.copyOf(whole, whole.length - 1));
+        assertThrows(IOException.class, () -> new JournalReplayer(cut));
+    }
+
+    private static TreasureHunter play(Path path, long seed, Map<String, DifficultyProfile> profiles)
+            throws IOException {
+        TreasureHunter game = new TreasureHunter(new GameRandom(seed), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource(SCRIPT)));
+        game.setProfiles(profiles);
+        try (ActionJournal journal = new ActionJournal(path, seed, profiles)) {
+            game.setJournal(journal);
+            game.play();
+        }
+        return game;
+    }
+}
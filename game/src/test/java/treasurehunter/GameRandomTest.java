@@ -0,0 +1,61 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The same seed must always give the same rolls, or seeded games, journals and snapshots stop replaying.
+ */
+
+public class GameRandomTest {
+
+    @Test
+    public void sameSeedRollsTheSame() {
+        assertArrayEquals(rolls(new GameRandom(42), 1000), rolls(new GameRandom(42), 1000));
+        assertFalse(Arrays.equals(rolls(new GameRandom(42), 1000), rolls(new GameRandom(43), 1000)));
+    }
+
+    @Test
+    public void restoreCarriesOnWhereItLeftOff() {
+        GameRandom original = new GameRandom(7);
+        rolls(original, 123);
+        GameRandom restored = GameRandom.restore(original.getSeed(), original.getState());
+        assertEquals(7, restored.getSeed());
+        assertArrayEquals(rolls(original, 500), rolls(restored, 500));
+    }
+
+    @Test
+    public void splitIsDeterministicAndIndependent() {
+        GameRandom a = new GameRandom(99);
+        GameRandom b = new GameRandom(99);
+        GameRandom childA = a.split();
+        GameRandom childB = b.split();
+        assertArrayEquals(rolls(childA, 200), rolls(childB, 200));
+        // rolling the child doesn't move the parent
+        assertArrayEquals(rolls(a, 200), rolls(b, 200));
+    }
+
+    @Test
+    public void rollsStayInRange() {
+        GameRandom random = new GameRandom(5);
+        for (int i = 0; i < 100_000; i++) {
+            double roll = random.nextDouble();
+            assertTrue(roll >= 0 && roll < 1);
+            int bounded = random.nextInt(6);
+            assertTrue(bounded >= 0 && bounded < 6);
+        }
+    }
+
+    private static int[] rolls(GameRandom random, int count) {
+        int[] rolls = new int[count];
+        for (int i = 0; i < count; i++) {
+            rolls[i] = random.nextInt(1_000_000);
+        }
+        return rolls;
+    }
+}
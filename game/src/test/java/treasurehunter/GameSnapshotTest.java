@@ -0,0 +1,205 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A game saved part way through and resumed must end exactly where the same game played straight through does,
+ * and a snapshot that is cut short or names something unknown must be refused.
+ */
+
+public class GameSnapshotTest {
+    private static final String[] MOVES = {"l", "h", "d", "m", "e", "l", "b", "shovel", "y", "d", "m", "l", "h",
+            "s", "shovel", "y", "l", "m", "h", "l", "d", "b", "rope", "y", "m", "l", "h", "m", "l", "h"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void resumedGameMatchesUninterruptedGame() throws IOException {
+        for (long seed = 0; seed < 20; seed++) {
+            List<String> lines = script();
+            TreasureHunter whole = new TreasureHunter(new GameRandom(seed), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines)));
+            playUntilInputRunsOut(whole);
+
+            // stop after the third move (lines 0 and 1 are the name and difficulty), then carry on
+            int cut = 5;
+            TreasureHunter first = new TreasureHunter(new GameRandom(seed), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines.subList(0, cut))));
+            playUntilInputRunsOut(first);
+            byte[] snapshot = first.saveSnapshot();
+            TreasureHunter second = new TreasureHunter(new GameRandom(seed + 1000), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines.subList(cut, lines.size()))));
+            second.resume(snapshot);
+            playUntilInputRunsOut(second);
+
+            assertEquals(describe(whole), describe(second), "seed " + seed);
+        }
+    }
+
+    @Test
+    public void resumedGameBuildsTheSameTownsInTheBackground() throws IOException {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<String> lines = script();
+            TreasureHunter whole = new TreasureHunter(new GameRandom(8), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines)), executor);
+            playUntilInputRunsOut(whole);
+            TreasureHunter first = new TreasureHunter(new GameRandom(8), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines.subList(0, 7))), executor);
+            playUntilInputRunsOut(first);
+            TreasureHunter second = new TreasureHunter(new GameRandom(0), NullOutput.INSTANCE,
+                    new PlayerInput(new ListCommandSource(lines.subList(7, lines.size()))), executor);
+            second.resume(first.saveSnapshot());
+            playUntilInputRunsOut(second);
+            assertEquals(describe(whole), describe(second));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void parkedGameIsPickedUpByName() {
+        TreasureHunter first = new TreasureHunter(new GameRandom(3), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource("mary read", "n", "l", "h")));
+        first.setSaveDirectory(dir);
+        playUntilInputRunsOut(first);
+        TreasureHunter second = new TreasureHunter(new GameRandom(4), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource("mary read")));
+        second.setSaveDirectory(dir);
+        playUntilInputRunsOut(second);
+        assertEquals(describe(first), describe(second));
+        assertEquals(2, second.getTurns());
+    }
+
+    @Test
+    public void journalOfAPickedUpGameReplays() throws IOException {
+        List<String> lines = script();
+        int cut = 6;
+        Path firstJournal = dir.resolve("first.journal");
+        TreasureHunter first = new TreasureHunter(new GameRandom(21), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource(lines.subList(0, cut))));
+        first.setSaveDirectory(dir);
+        try (ActionJournal journal = new ActionJournal(firstJournal, 21)) {
+            first.setJournal(journal);
+            playUntilInputRunsOut(first);
+        }
+
+        // the player comes back under the same name, in a game with a different seed
+        List<String> comeBack = new ArrayList<>(List.of("calico jack"));
+        comeBack.addAll(lines.subList(cut, lines.size()));
+        Path secondJournal = dir.resolve("second.journal");
+        TreasureHunter second = new TreasureHunter(new GameRandom(22), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource(comeBack)));
+        second.setSaveDirectory(dir);
+        try (ActionJournal journal = new ActionJournal(secondJournal, 22)) {
+            second.setJournal(journal);
+            playUntilInputRunsOut(second);
+        }
+
+        JournalReplayer replayer = new JournalReplayer(firstJournal);
+        TreasureHunter replayed = replayer.replay();
+        assertTrue(replayer.matchesLastOutcome(replayed.getHunter()));
+        assertEquals(describe(first), describe(replayed));
+
+        replayer = new JournalReplayer(secondJournal);
+        assertTrue(replayer.isResumed());
+        // the game may end before the script does
+        assertEquals(comeBack.subList(0, replayer.getLines().size()), replayer.getLines());
+        assertTrue(replayer.getOutcomes() > 0);
+        replayed = replayer.replay();
+        assertTrue(replayer.matchesLastOutcome(replayed.getHunter()));
+        assertEquals(describe(second), describe(replayed));
+    }
+
+    @Test
+    public void truncatedSnapshotIsAnIOException() {
+        byte[] whole = startedGame().saveSnapshot();
+        for (int length = 0; length < whole.length; length++) {
+            byte[] cut = Arrays.copyOf(whole, length);
+            assertThrows(IOException.class, () -> GameSnapshot.load(cut, NullOutput.INSTANCE), "length " + length);
+        }
+    }
+
+    @Test
+    public void unknownNamesAreRejected() throws IOException {
+        byte[] whole = startedGame().saveSnapshot();
+        GameSnapshot.load(whole, NullOutput.INSTANCE);
+        String[] names = {"Ocean", "Mountains", "Plains", "Desert", "Jungle", "Marsh",
+                "crown", "trophy", "gem", "dust", "WELCOME_TOUGH", "WELCOME_CALM", "NO_NEWS"};
+        boolean replaced = false;
+        for (String name : names) {
+            int at = indexOf(whole, name.getBytes(StandardCharsets.UTF_8));
+            if (at >= 0) {
+                byte[] broken = whole.clone();
+                broken[at] = (byte) '?';
+                assertThrows(IOException.class, () -> GameSnapshot.load(broken, NullOutput.INSTANCE), name);
+                replaced = true;
+            }
+        }
+        assertTrue(replaced);
+    }
+
+    @Test
+    public void savedToAFileAndBack() throws IOException {
+        TreasureHunter game = startedGame();
+        Path path = dir.resolve("game.snapshot");
+        Files.write(path, game.saveSnapshot());
+        GameSnapshot loaded = GameSnapshot.loadFrom(path, NullOutput.INSTANCE);
+        assertEquals(game.getHunter().infoString(), loaded.getHunter().infoString());
+        assertEquals(game.getCurrentTown().infoString(), loaded.getTown().infoString());
+        assertEquals(game.getTurns(), loaded.getTurns());
+    }
+
+    private static TreasureHunter startedGame() {
+        TreasureHunter game = new TreasureHunter(new GameRandom(11), NullOutput.INSTANCE,
+                new PlayerInput(new ListCommandSource("anne", "n", "l", "h")));
+        playUntilInputRunsOut(game);
+        return game;
+    }
+
+    private static List<String> script() {
+        List<String> lines = new ArrayList<>(List.of("calico jack", "n"));
+        lines.addAll(Arrays.asList(MOVES));
+        return lines;
+    }
+
+    private static void playUntilInputRunsOut(TreasureHunter game) {
+        try {
+            game.play();
+        } catch (NoSuchElementException e) {
+            // the script ran out mid-game
+        }
+    }
+
+    private static String describe(TreasureHunter game) {
+        Hunter hunter = game.getHunter();
+        return hunter.infoString() + "|" + hunter.getKit() + "|" + hunter.isGameOver() + "|" + hunter.isWin()
+                + "|" + game.getCurrentTown().infoString() + "|" + game.getCurrentTown().getLatestNews()
+                + "|" + game.getTurns();
+    }
+
+    private static int indexOf(byte[] data, byte[] part) {
+        for (int i = 0; i + part.length <= data.length; i++) {
+            if (Arrays.equals(data, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,122 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * One hunter served by a shared Shop from several threads at once must never pay twice, lose a sale or a
+ * treasure, or see its gold wrap around.
+ */
+
+public class HunterTest {
+    private static final int THREADS = 4;
+    private static final int TRIES = 20_000;
+
+    @Test
+    public void buyingAndSellingRaceKeepsTheBooks() throws InterruptedException {
+        Shop shop = new Shop(DifficultyProfile.forKey("n"));
+        int buyPrice = shop.getCostOfItem("horse");
+        int sellPrice = shop.getBuyBackCost("horse");
+        int start = 1_000_000_000;
+        Hunter hunter = new Hunter("ching shih", start);
+        AtomicInteger buys = new AtomicInteger();
+        AtomicInteger sells = new AtomicInteger();
+        runAtOnce(thread -> {
+            for (int i = 0; i < TRIES; i++) {
+                if ((i + thread) % 2 == 0) {
+                    if (shop.buy(hunter, "horse")) {
+                        buys.incrementAndGet();
+                    }
+                } else if (shop.sell(hunter, "horse")) {
+                    sells.incrementAndGet();
+                }
+            }
+        });
+        int held = buys.get() - sells.get();
+        assertTrue(held == 0 || held == 1, "held " + held);
+        assertEquals(held == 1, hunter.hasItemInKit(Item.HORSE));
+        assertEquals((long) start - (long) buys.get() * buyPrice + (long) sells.get() * sellPrice, hunter.getGold());
+    }
+
+    @Test
+    public void onlyOneThreadBuysTheLastItem() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            Shop shop = new Shop(DifficultyProfile.forKey("n"));
+            int price = shop.getCostOfItem("boat");
+            Hunter hunter = new Hunter("grace o'malley", price);
+            AtomicInteger bought = new AtomicInteger();
+            runAtOnce(thread -> {
+                if (shop.buy(hunter, "boat")) {
+                    bought.incrementAndGet();
+                }
+            });
+            assertEquals(1, bought.get());
+            assertEquals(0, hunter.getGold());
+        }
+    }
+
+    @Test
+    public void treasuresFoundAtOnceAllCount() throws InterruptedException {
+        Treasure[] treasures = {Treasure.CROWN, Treasure.TROPHY, Treasure.GEM};
+        for (int round = 0; round < 500; round++) {
+            Hunter hunter = new Hunter("anne", 10);
+            AtomicInteger added = new AtomicInteger();
+            runAtOnce(thread -> {
+                if (hunter.addTreasure(treasures[thread % treasures.length])) {
+                    added.incrementAndGet();
+                }
+            });
+            assertEquals(3, added.get());
+            assertEquals(Hunter.ALL_TREASURES, hunter.getTreasures());
+            assertTrue(hunter.isWin());
+        }
+    }
+
+    @Test
+    public void goldStopsAtTheMostAnIntHolds() {
+        Hunter hunter = new Hunter("mary", Integer.MAX_VALUE - 5);
+        hunter.changeGold(100);
+        assertEquals(Integer.MAX_VALUE, hunter.getGold());
+        assertFalse(hunter.isGameOver());
+        assertTrue(hunter.addStartingItem(Item.HORSE));
+        assertTrue(hunter.sellItem("horse", 50));
+        assertEquals(Integer.MAX_VALUE, hunter.getGold());
+        hunter.changeGold(-Integer.MAX_VALUE - 1);
+        assertEquals(0, hunter.getGold());
+        assertTrue(hunter.isGameOver());
+    }
+
+    /**
+     * Starts every thread together, so they really race, and waits for them all to finish.
+     */
+    private static void runAtOnce(Work work) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                work.run(thread);
+            }));
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private interface Work {
+        void run(int thread);
+    }
+}
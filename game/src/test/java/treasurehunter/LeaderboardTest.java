@@ -0,0 +1,120 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The leaderboard must come back from its file ranked as it was, even when the last record was cut short.
+ */
+
+public class LeaderboardTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void reopenedBoardRanksTheSame() throws IOException {
+        Path path = dir.resolve("scores.lb");
+        List<String> before;
+        try (Leaderboard board = new Leaderboard(path)) {
+            addGames(board, 50);
+            before = names(board.getTop("n", 10));
+        }
+        try (Leaderboard board = new Leaderboard(path)) {
+            assertEquals(50, board.size());
+            assertEquals(before, names(board.getTop("n", 10)));
+        }
+    }
+
+    @Test
+    public void tornRecordIsDroppedOnReopen() throws IOException {
+        Path path = dir.resolve("scores.lb");
+        try (Leaderboard board = new Leaderboard(path)) {
+            addGames(board, 3);
+        }
+        long whole = Files.size(path);
+        // a crash part way through writing the next record
+        Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+
+        try (Leaderboard board = new Leaderboard(path)) {
+            assertEquals(3, board.size());
+            assertEquals(whole, Files.size(path));
+            board.add(hunter("edward teach", 77), "n", 9);
+        }
+        try (Leaderboard board = new Leaderboard(path)) {
+            assertEquals(4, board.size());
+            assertEquals("edward teach", board.getTop("n", 1).get(0).getName());
+            assertEquals(whole + 64, Files.size(path));
+        }
+    }
+
+    @Test
+    public void damagedRecordsAreLeftOut() throws IOException {
+        Path path = dir.resolve("scores.lb");
+        try (Leaderboard board = new Leaderboard(path)) {
+            board.add(hunter("first", 30), "n", 5);
+            board.add(hunter("second", 20), "n", 5);
+            board.add(hunter("third", 10), "n", 5);
+        }
+        byte[] data = Files.readAllBytes(path);
+        // header 6 bytes, 64-byte records: the name length is byte 0 of a record, the key length byte 28
+        data[6] = (byte) 0x80;
+        data[6 + 64 + 28] = (byte) 0xff;
+        Files.write(path, data);
+
+        try (Leaderboard board = new Leaderboard(path)) {
+            assertEquals(3, board.size());
+            assertEquals(List.of("third"), names(board.getTop("n", 10)));
+            board.add(hunter("fourth", 40), "n", 5);
+            assertEquals(List.of("fourth", "third"), names(board.getTop("n", 10)));
+        }
+    }
+
+    @Test
+    public void keysSharingALetterAreRankedApart() throws IOException {
+        Path path = dir.resolve("scores.lb");
+        try (Leaderboard board = new Leaderboard(path)) {
+            board.add(hunter("short", 10), "s", 5);
+            board.add(hunter("long", 20), "samurai", 5);
+        }
+        try (Leaderboard board = new Leaderboard(path)) {
+            assertEquals(List.of("short"), names(board.getTop("s", 5)));
+            assertEquals(List.of("long"), names(board.getTop("samurai", 5)));
+            assertThrows(IllegalArgumentException.class, () -> board.add(hunter("x", 1), "", 1));
+            assertThrows(IllegalArgumentException.class, () -> board.add(hunter("x", 1), "k".repeat(16), 1));
+        }
+    }
+
+    @Test
+    public void otherFilesAreRefused() throws IOException {
+        Path path = dir.resolve("not-a-board");
+        Files.write(path, new byte[] {'h', 'e', 'l', 'l', 'o', '!', '!'});
+        assertThrows(IOException.class, () -> new Leaderboard(path));
+    }
+
+    private static void addGames(Leaderboard board, int games) {
+        for (int i = 0; i < games; i++) {
+            board.add(hunter("hunter " + i, (i * 37) % 101), "n", 10 + i);
+        }
+    }
+
+    private static Hunter hunter(String name, int gold) {
+        return new Hunter(name, gold);
+    }
+
+    private static List<String> names(List<LeaderboardEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,20 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The engine's answer must agree with playing the same strategy many times.
+ */
+
+public class MarkovEngineTest {
+    private static final int GAMES = 50_000;
+
+    @Test
+    public void winChanceMatchesSimulatedGames() {
+        MarkovEngine engine = new MarkovEngine("n");
+        SimulationStats stats = BatchSimulator.run(DifficultyProfile.forKey("n"), GAMES, 1000, 7, (Leaderboard) null);
+        assertEquals(stats.getWinRate(), engine.getWinChance(), 0.01);
+    }
+}
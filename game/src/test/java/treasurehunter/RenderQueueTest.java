@@ -0,0 +1,113 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * What the drawing thread sees of the game's text: only what was published, one clear at most, and runs of the
+ * same color joined.
+ */
+
+public class RenderQueueTest {
+    @Test
+    public void nothingIsSeenUntilPublished() {
+        AtomicInteger published = new AtomicInteger();
+        RenderQueue queue = new RenderQueue(16, published::incrementAndGet);
+        queue.add("hidden", TextColor.BLACK);
+        assertFalse(queue.hasPublished());
+        Screen screen = new Screen();
+        assertEquals(0, queue.drain(screen));
+        assertEquals(List.of(), screen.events);
+
+        queue.publish();
+        queue.publish(); // nothing new, so no second wake-up
+        assertEquals(1, published.get());
+        assertTrue(queue.hasPublished());
+        assertEquals(1, queue.drain(screen));
+        assertEquals(List.of("BLACK:hidden"), screen.events);
+        assertFalse(queue.hasPublished());
+    }
+
+    @Test
+    public void drainSkipsToTheLastClearAndJoinsRuns() {
+        RenderQueue queue = new RenderQueue(16, () -> { });
+        queue.add("old", TextColor.RED);
+        queue.publish();
+        queue.clear();
+        queue.add("older", TextColor.BLUE);
+        queue.publish();
+        queue.clear();
+        queue.add("a", TextColor.BLACK);
+        queue.add("b", TextColor.BLACK);
+        queue.add("c", TextColor.ORANGE);
+        queue.add("d", TextColor.BLACK);
+        queue.publish();
+
+        Screen screen = new Screen();
+        assertEquals(8, queue.drain(screen));
+        assertEquals(List.of("clear", "BLACK:ab", "ORANGE:c", "BLACK:d"), screen.events);
+    }
+
+    @Test
+    public void clearThrowsAwayWhatWasNotPublished() {
+        RenderQueue queue = new RenderQueue(16, () -> { });
+        queue.add("kept", TextColor.GREEN);
+        queue.publish();
+        queue.add("dropped", TextColor.GREEN);
+        queue.clear();
+        queue.add("new", TextColor.GREEN);
+        queue.publish();
+
+        Screen screen = new Screen();
+        assertEquals(3, queue.drain(screen));
+        assertEquals(List.of("clear", "GREEN:new"), screen.events);
+    }
+
+    @Test
+    public void aFullRingWaitsForTheReader() throws InterruptedException {
+        RenderQueue queue = new RenderQueue(4, () -> { });
+        Screen screen = new Screen();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            int drained = 0;
+            while (drained < 100) {
+                drained += queue.drain(screen);
+                Thread.onSpinWait();
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            queue.add(i % 2 == 0 ? "x" : "y", i % 2 == 0 ? TextColor.BLACK : TextColor.BLUE);
+        }
+        queue.publish();
+        reader.join();
+        StringBuilder seen = new StringBuilder();
+        for (String event : screen.events) {
+            seen.append(event.substring(event.indexOf(':') + 1));
+        }
+        assertEquals("xy".repeat(50), seen.toString());
+    }
+
+    @Test
+    public void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderQueue(12, () -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new RenderQueue(1, () -> { }));
+    }
+
+    private static class Screen implements RenderQueue.Reader {
+        private final List<String> events = new ArrayList<>();
+
+        public void clear() {
+            events.add("clear");
+        }
+
+        public void append(String text, TextColor color) {
+            events.add(color + ":" + text);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The planner's cheapest route must cost what trying every set of items by hand says it costs.
+ */
+
+public class RoutePlannerTest {
+    @Test
+    public void planMatchesBruteForce() {
+        for (long seed = 0; seed < 5; seed++) {
+            GameRandom random = new GameRandom(seed);
+            WorldMap map = new WorldMap(DifficultyProfile.forKey("n"), NullOutput.INSTANCE, 60, 2, random);
+            PriceTable prices = map.getProfile().getPriceTable();
+            RoutePlanner planner = new RoutePlanner(map);
+            int checked = 0;
+            for (int query = 0; query < 300; query++) {
+                int from = random.nextInt(60);
+                int to = random.nextInt(60);
+                int kit = random.nextInt(WorldMap.CROSSING_SETS);
+                int gold = random.nextInt(60);
+                RoutePlan plan = planner.plan(from, to, kit, gold);
+                int cheapest = bruteForce(planner, prices, from, to, kit, gold);
+                if (cheapest < 0) {
+                    assertNull(plan, "seed " + seed + " query " + query);
+                } else {
+                    assertNotNull(plan, "seed " + seed + " query " + query);
+                    assertEquals(cheapest, plan.getCost(), "seed " + seed + " query " + query);
+                    checkRoute(map, planner.findRoute(from, to, plan.getCrossings()), from, to, plan.getCrossings());
+                    checked++;
+                }
+            }
+            assertTrue(checked > 0);
+        }
+    }
+
+    /**
+     * @return The least any affordable set of missing items costs that joins the two towns, or -1 if none does.
+     */
+    private static int bruteForce(RoutePlanner planner, PriceTable prices, int from, int to, int kit, int gold) {
+        int have = WorldMap.crossingsFor(kit);
+        int cheapest = -1;
+        for (int set = 0; set < WorldMap.CROSSING_SETS; set++) {
+            if ((set & have) != 0) {
+                continue;
+            }
+            int cost = 0;
+            for (Item item : Item.values()) {
+                if ((set & item.getBit()) != 0) {
+                    cost += prices.getBuyPrice(item);
+                }
+            }
+            if (cost <= gold && (cheapest < 0 || cost < cheapest) && planner.findRoute(from, to, have | set) != null) {
+                cheapest = cost;
+            }
+        }
+        return cheapest;
+    }
+
+    private static void checkRoute(WorldMap map, int[] route, int from, int to, int crossings) {
+        assertNotNull(route);
+        assertEquals(from, route[0]);
+        assertEquals(to, route[route.length - 1]);
+        for (int step = 1; step < route.length; step++) {
+            boolean joined = false;
+            for (int road = 0; road < map.getRoadCount(route[step - 1]); road++) {
+                if (map.getNeighbour(route[step - 1], road) == route[step]
+                        && map.canTravel(route[step - 1], road, crossings)) {
+                    joined = true;
+                }
+            }
+            assertTrue(joined, "no road from " + route[step - 1] + " to " + route[step]);
+        }
+    }
+}
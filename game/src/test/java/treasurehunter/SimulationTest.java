@@ -0,0 +1,82 @@
+package treasurehunter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Headless games must play to the end on their own, the same way for the same seed, and a parallel batch must
+ * add up to the games played one at a time.
+ */
+
+public class SimulationTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void sameSeedPlaysTheSameGame() {
+        for (String difficulty : new String[] {"e", "n", "h"}) {
+            for (long seed = 0; seed < 50; seed++) {
+                Simulation first = new Simulation(difficulty, seed);
+                first.playGreedy();
+                Simulation second = new Simulation(difficulty, seed);
+                second.playGreedy();
+                assertEquals(describe(first), describe(second), difficulty + " seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    public void greedyGameEndsOrRunsOutOfTurns() {
+        for (long seed = 0; seed < 200; seed++) {
+            Simulation simulation = new Simulation("n", seed);
+            simulation.playGreedy(100);
+            assertTrue(simulation.isOver() || simulation.getTurns() == 100, "seed " + seed);
+            assertTrue(simulation.getTurns() <= 100);
+            assertTrue(simulation.getTownsVisited() >= 1);
+        }
+    }
+
+    @Test
+    public void movesAreCountedAsTurns() {
+        Simulation simulation = new Simulation("e", 5);
+        simulation.treasureHunt();
+        simulation.lookForTrouble();
+        simulation.buy("shovel");
+        simulation.digForGold();
+        assertEquals(4, simulation.getTurns());
+        assertTrue(simulation.getCurrentTown().isSearched());
+    }
+
+    @Test
+    public void batchMatchesGamesPlayedOneAtATime() {
+        SimulationStats expected = new SimulationStats();
+        for (int i = 0; i < 2_000; i++) {
+            Simulation simulation = new Simulation("n", 100 + i);
+            simulation.playGreedy(300);
+            expected.add(simulation);
+        }
+        SimulationStats batch = BatchSimulator.run("n", 2_000, 300, 100);
+        assertEquals(expected.infoString(), batch.infoString());
+        assertEquals(2_000, batch.getGames());
+    }
+
+    @Test
+    public void batchRecordsEveryGameOnTheLeaderboard() throws IOException {
+        try (Leaderboard board = new Leaderboard(dir.resolve("scores.lb"))) {
+            SimulationStats stats = BatchSimulator.run("h", 500, 300, 9, board);
+            assertEquals(500, board.size());
+            assertEquals(stats.getWins() > 0, board.getTop("h", 1).get(0).isWin());
+        }
+    }
+
+    private static String describe(Simulation simulation) {
+        Hunter hunter = simulation.getHunter();
+        return hunter.getGold() + "|" + hunter.getKit() + "|" + hunter.getTreasures() + "|" + hunter.isWin()
+                + "|" + hunter.isGameOver() + "|" + simulation.getTurns() + "|" + simulation.getTownsVisited();
+    }
+}